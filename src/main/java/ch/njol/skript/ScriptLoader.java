@@ -47,6 +47,9 @@ import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.config.SimpleNode;
 import ch.njol.skript.effects.Delay;
+import ch.njol.skript.effects.EffScanBlocks;
+import ch.njol.skript.lang.AsyncSafe;
+import ch.njol.skript.lang.AsyncSection;
 import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Conditional;
 import ch.njol.skript.lang.Expression;
@@ -124,12 +127,14 @@ final public class ScriptLoader {
 		currentEventName = name;
 		currentEvents = events;
 		hasDelayBefore = Kleenean.FALSE;
+		asyncSafe = true;
 	}
 	
 	public static void deleteCurrentEvent() {
 		currentEventName = null;
 		currentEvents = null;
 		hasDelayBefore = Kleenean.FALSE;
+		asyncSafe = true;
 	}
 	
 	public static List<TriggerSection> currentSections = new ArrayList<TriggerSection>();
@@ -148,6 +153,40 @@ final public class ScriptLoader {
 	
 	public static Kleenean hasDelayBefore = Kleenean.FALSE;
 	
+	/**
+	 * Whether all syntax elements parsed since the last call to {@link #setCurrentEvent(String, Class...)} are {@link AsyncSafe}. Syntax elements which are not created by
+	 * the parser have to reset this themselves if they are not safe to be used asynchronously.
+	 */
+	public static boolean asyncSafe = true;
+	
+	/**
+	 * @return Whether items are currently loaded into an {@link AsyncSection}, in which case only {@link AsyncSafe} syntax elements may be used
+	 */
+	public static boolean isInBackground() {
+		for (final TriggerSection s : currentSections) {
+			if (s instanceof AsyncSection)
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Updates {@link #asyncSafe} after parsing a syntax element and prints an error if the element is not async safe but is used in a background section.
+	 * 
+	 * @param wasAsyncSafe The value of {@link #asyncSafe} before it was set to true to parse the element
+	 * @param element The parsed element
+	 * @return Whether the element may be used
+	 */
+	private static boolean checkAsyncSafe(final boolean wasAsyncSafe, final Object element) {
+		final boolean safe = asyncSafe;
+		asyncSafe = wasAsyncSafe && safe;
+		if (!safe && isInBackground()) {
+			Skript.error("'" + element + "' can't be used in a background section as it is not thread-safe");
+			return false;
+		}
+		return true;
+	}
+	
 	public static class ScriptInfo {
 		public int files, triggers, commands, functions;
 		
@@ -349,7 +388,10 @@ final public class ScriptLoader {
 			int numCommands = 0;
 			int numFunctions = 0;
 			
-			currentAliases.clear();
+			if (!currentAliases.isEmpty()) {
+				currentAliases.clear();
+				Aliases.clearParseCache();
+			}
 			currentOptions.clear();
 			currentScript = config;
 			
@@ -380,6 +422,7 @@ final public class ScriptLoader {
 							if (t == null)
 								continue;
 							currentAliases.put(((EntryNode) n).getKey().toLowerCase(), t);
+							Aliases.clearParseCache();
 						}
 						continue;
 					} else if (event.equalsIgnoreCase("options")) {
@@ -511,6 +554,7 @@ final public class ScriptLoader {
 					final Trigger trigger;
 					try {
 						trigger = new Trigger(config.getFile(), event, parsedEvent.getSecond(), loadItems(node));
+						trigger.setAsyncSafe(asyncSafe);
 					} finally {
 						deleteCurrentEvent();
 					}
@@ -619,7 +663,10 @@ final public class ScriptLoader {
 			int numCommands = 0;
 			int numFunctions = 0;
 			
-			currentAliases.clear();
+			if (!currentAliases.isEmpty()) {
+				currentAliases.clear();
+				Aliases.clearParseCache();
+			}
 			currentOptions.clear();
 			currentScript = config;
 			
@@ -751,13 +798,19 @@ final public class ScriptLoader {
 				final String s = replaceOptions("" + e.getKey());
 				if (!SkriptParser.validateLine(s))
 					continue;
+				final boolean wasAsyncSafe = asyncSafe;
+				asyncSafe = true;
 				final Statement stmt = Statement.parse(s, "Can't understand this condition/effect: " + s);
-				if (stmt == null)
+				if (stmt == null) {
+					asyncSafe = wasAsyncSafe;
+					continue;
+				}
+				if (!checkAsyncSafe(wasAsyncSafe, s))
 					continue;
 				if (Skript.debug() || n.debug())
 					Skript.debug(indentation + stmt.toString(null, true));
 				items.add(stmt);
-				if (stmt instanceof Delay)
+				if (stmt instanceof Delay || stmt instanceof EffScanBlocks)
 					hasDelayBefore = Kleenean.TRUE;
 			} else if (n instanceof SectionNode) {
 				String name = replaceOptions("" + n.getKey());
@@ -765,6 +818,10 @@ final public class ScriptLoader {
 					continue;
 				
 				if (StringUtils.startsWithIgnoreCase(name, "loop ")) {
+					if (isInBackground()) {
+						Skript.error("Loops can't be used in background sections");
+						continue;
+					}
 					final String l = "" + name.substring("loop ".length());
 					final RetainingLogHandler h = SkriptLogger.startRetainingLog();
 					Expression<?> loopedExpr;
@@ -788,12 +845,19 @@ final public class ScriptLoader {
 						Skript.debug(indentation + "loop " + loopedExpr.toString(null, true) + ":");
 					final Kleenean hadDelayBefore = hasDelayBefore;
 					items.add(new Loop(loopedExpr, (SectionNode) n));
+					asyncSafe = false; // loops store their current values per event in an unsynchronised map
 					if (hadDelayBefore != Kleenean.TRUE && hasDelayBefore != Kleenean.FALSE)
 						hasDelayBefore = Kleenean.UNKNOWN;
 				} else if (StringUtils.startsWithIgnoreCase(name, "while ")) {
 					final String l = "" + name.substring("while ".length());
+					final boolean wasAsyncSafe = asyncSafe;
+					asyncSafe = true;
 					final Condition c = Condition.parse(l, "Can't understand this condition: " + l);
-					if (c == null)
+					if (c == null) {
+						asyncSafe = wasAsyncSafe;
+						continue;
+					}
+					if (!checkAsyncSafe(wasAsyncSafe, l))
 						continue;
 					if (Skript.debug() || n.debug())
 						Skript.debug(indentation + "while " + c.toString(null, true) + ":");
@@ -818,8 +882,14 @@ final public class ScriptLoader {
 						continue;
 					}
 					name = "" + name.substring("else if ".length());
+					final boolean wasAsyncSafe = asyncSafe;
+					asyncSafe = true;
 					final Condition cond = Condition.parse(name, "can't understand this condition: '" + name + "'");
-					if (cond == null)
+					if (cond == null) {
+						asyncSafe = wasAsyncSafe;
+						continue;
+					}
+					if (!checkAsyncSafe(wasAsyncSafe, name))
 						continue;
 					if (Skript.debug() || n.debug())
 						Skript.debug(indentation + "else if " + cond.toString(null, true));
@@ -827,11 +897,27 @@ final public class ScriptLoader {
 					hasDelayBefore = hadDelayBeforeLastIf;
 					((Conditional) items.get(items.size() - 1)).loadElseIf(cond, (SectionNode) n);
 					hasDelayBefore = hadDelayBeforeLastIf.or(hadDelayAfterLastIf.and(hasDelayBefore.and(Kleenean.UNKNOWN)));
+				} else if (name.equalsIgnoreCase("async") || name.equalsIgnoreCase("in background") || name.equalsIgnoreCase("in the background")) {
+					if (isInBackground()) {
+						Skript.error("Background sections can't be nested");
+						continue;
+					}
+					if (Skript.debug() || n.debug())
+						Skript.debug(indentation + "in background:");
+					hasDelayBefore = Kleenean.TRUE;
+					items.add(new AsyncSection((SectionNode) n));
+					asyncSafe = false; // the rest of the trigger is continued on the main thread
 				} else {
 					if (StringUtils.startsWithIgnoreCase(name, "if "))
 						name = "" + name.substring(3);
+					final boolean wasAsyncSafe = asyncSafe;
+					asyncSafe = true;
 					final Condition cond = Condition.parse(name, "can't understand this condition: '" + name + "'");
-					if (cond == null)
+					if (cond == null) {
+						asyncSafe = wasAsyncSafe;
+						continue;
+					}
+					if (!checkAsyncSafe(wasAsyncSafe, name))
 						continue;
 					if (Skript.debug() || n.debug())
 						Skript.debug(indentation + cond.toString(null, true) + ":");
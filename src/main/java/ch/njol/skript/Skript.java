@@ -114,6 +114,7 @@ import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.FileUtils;
 import ch.njol.skript.util.Getter;
 import ch.njol.skript.util.Task;
+import ch.njol.skript.util.TimingWheel;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.Version;
 import ch.njol.skript.variables.Variables;
@@ -360,7 +361,7 @@ public final class Skript extends JavaPlugin implements Listener {
 					public LogResult log(final LogEntry entry) {
 						super.log(entry);
 						if (entry.level.intValue() >= Level.SEVERE.intValue()) {
-							logEx(entry.message); // no [Skript] prefix
+							logEx(entry.getRawMessage()); // no [Skript] prefix
 							return LogResult.DO_NOT_LOG;
 						} else {
 //							log.add(entry);
@@ -733,6 +734,7 @@ public final class Skript extends JavaPlugin implements Listener {
 		
 		disableScripts();
 		
+		TimingWheel.cancelAll();
 		Bukkit.getScheduler().cancelTasks(this);
 		
 		for (final Closeable c : closeOnDisable) {
@@ -83,6 +83,7 @@ public class SkriptCommand implements CommandExecutor {
 			).add(new CommandHelp("timings", Color.DARK_RED)
 					.add("start")
 					.add("stop")
+					.add("report")
 			).add("help");
 	
 	static {
@@ -341,9 +342,18 @@ public class SkriptCommand implements CommandExecutor {
 					Skript.adminBroadcast(Language.get("timings.start message"));
 				} else if (args[1].equalsIgnoreCase("stop")) {
 					Timings.disable();
-					TimingReporter.saveToFile(TimingReporter.getReport());
+					TimingReporter.save();
 					Timings.clear();
 					Skript.adminBroadcast(Language.get("timings.stop message"));
+				} else if (args[1].equalsIgnoreCase("report")) {
+					if (!Timings.enabled()) {
+						Skript.error(sender, Language.get("timings.not started"));
+						return true;
+					}
+					final File report = TimingReporter.save();
+					for (final String line : TimingReporter.getSummary(10))
+						Skript.info(sender, line);
+					Skript.info(sender, Language.format("timings.report message", report.getName()));
 				}
 			} else if (args[0].equalsIgnoreCase("gen-docs")) {
 				File templateDir = new File(Skript.getInstance().getDataFolder() + "/doc-templates/");
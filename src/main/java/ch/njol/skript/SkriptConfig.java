@@ -39,12 +39,16 @@ import ch.njol.skript.config.EnumParser;
 import ch.njol.skript.config.Option;
 import ch.njol.skript.config.OptionSection;
 import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.AsyncSection;
+import ch.njol.skript.lang.Variable;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.log.Verbosity;
 import ch.njol.skript.util.FileUtils;
 import ch.njol.skript.util.Task;
 import ch.njol.skript.util.Timespan;
+import ch.njol.skript.util.TimingWheel;
+import ch.njol.skript.variables.Variables;
 import ch.njol.util.Setter;
 
 /**
@@ -171,6 +175,64 @@ public abstract class SkriptConfig {
 	
 	public final static Option<Boolean> apiSoftExceptions = new Option<Boolean>("soft api exceptions", false);
 	
+	public final static Option<Boolean> cacheEntityLookups = new Option<Boolean>("cache entity lookups", false)
+			.optional(true);
+	
+	/**
+	 * Whether values with fields, e.g. locations, are saved in the compact Yggdrasil format. Values saved in either format can always be loaded.
+	 */
+	public final static Option<Boolean> compactVariableFormat = new Option<Boolean>("compact variable format", false)
+			.optional(true);
+	
+	/**
+	 * In milliseconds, 0 disables the budget
+	 */
+	public final static Option<Integer> continuationTickBudget = new Option<Integer>("continuation tick budget", 0)
+			.optional(true)
+			.setter(new Setter<Integer>() {
+				@Override
+				public void set(final Integer ms) {
+					TimingWheel.setTickBudget(Math.max(ms.intValue(), 0) * 1000000L);
+				}
+			});
+	
+	public final static Option<Integer> backgroundThreads = new Option<Integer>("background threads", 2)
+			.optional(true)
+			.setter(new Setter<Integer>() {
+				@Override
+				public void set(final Integer threads) {
+					AsyncSection.setPoolSize(Math.max(threads.intValue(), 1));
+				}
+			});
+	
+	public final static Option<Integer> backgroundQueueSize = new Option<Integer>("background queue size", 1000)
+			.optional(true)
+			.setter(new Setter<Integer>() {
+				@Override
+				public void set(final Integer size) {
+					AsyncSection.setMaxQueueSize(Math.max(size.intValue(), 0));
+				}
+			});
+	
+	public final static Option<String> indexedListVariables = new Option<String>("indexed list variables", "")
+			.optional(true)
+			.setter(new Setter<String>() {
+				@Override
+				public void set(final String lists) {
+					final Collection<String> names = new ArrayList<String>();
+					for (String list : lists.split(",")) {
+						list = list.trim();
+						if (list.startsWith("{") && list.endsWith("}"))
+							list = list.substring(1, list.length() - 1).trim();
+						if (list.endsWith(Variable.SEPARATOR + "*"))
+							list = list.substring(0, list.length() - Variable.SEPARATOR.length() - 1);
+						if (!list.isEmpty())
+							names.add(list);
+					}
+					Variables.setIndexedLists(names);
+				}
+			});
+	
 	/**
 	 * This should only be used in special cases
 	 */
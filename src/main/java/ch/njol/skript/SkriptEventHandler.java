@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.bukkit.Bukkit;
 import org.bukkit.event.Cancellable;
@@ -45,10 +46,13 @@ import org.eclipse.jdt.annotation.Nullable;
 import ch.njol.skript.ScriptLoader.ScriptInfo;
 import ch.njol.skript.command.Commands;
 import ch.njol.skript.lang.SelfRegisteringSkriptEvent;
+import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.function.Functions;
-import ch.njol.skript.timings.Timing;
 import ch.njol.skript.timings.Timings;
+import ch.njol.skript.util.ScriptOptions;
+import ch.njol.skript.util.Task;
+import ch.njol.skript.util.TimingWheel;
 
 /**
  * @author Peter Güttinger
@@ -100,15 +104,25 @@ public abstract class SkriptEventHandler {
 	
 	@Nullable
 	static Event last = null;
+	/**
+	 * Same as {@link #last} for asynchronous events, which can be called on multiple threads at once
+	 */
+	private final static ThreadLocal<Event> lastAsync = new ThreadLocal<>();
 	
 	final static EventExecutor ee = new EventExecutor() {
 		@Override
 		public void execute(final @Nullable Listener l, final @Nullable Event e) {
 			if (e == null)
 				return;
-			if (last == e) // an event is received multiple times if multiple superclasses of it are registered
-				return;
-			last = e;
+			if (e.isAsynchronous()) {
+				if (lastAsync.get() == e)
+					return;
+				lastAsync.set(e);
+			} else {
+				if (last == e) // an event is received multiple times if multiple superclasses of it are registered
+					return;
+				last = e;
+			}
 			check(e);
 		}
 	};
@@ -139,33 +153,74 @@ public abstract class SkriptEventHandler {
 		if (e instanceof Cancellable && ((Cancellable) e).isCancelled() &&
 				!(e instanceof PlayerInteractEvent && (((PlayerInteractEvent) e).getAction() == Action.LEFT_CLICK_AIR || ((PlayerInteractEvent) e).getAction() == Action.RIGHT_CLICK_AIR) && ((PlayerInteractEvent) e).useItemInHand() != Result.DENY)
 				|| e instanceof ServerCommandEvent && (((ServerCommandEvent) e).getCommand() == null || ((ServerCommandEvent) e).getCommand().isEmpty())) {
-			if (Skript.logVeryHigh())
+			if (Skript.logVeryHigh()) {
 				Skript.info(" -x- was cancelled");
+				logEventEnd(); // pops the frame pushed by logEventStart
+			}
 			return;
 		}
 		
-		while (ts.hasNext()) {
-			final Trigger t = ts.next();
-			if (!t.getEvent().check(e))
-				continue;
-			logTriggerStart(t);
-			t.execute(e);
-			logTriggerEnd(t);
+		if (e.isAsynchronous() && !Bukkit.isPrimaryThread()) {
+			final List<Trigger> list = new ArrayList<>();
+			while (ts.hasNext())
+				list.add(ts.next());
+			executeAsync(e, list, true);
+		} else {
+			while (ts.hasNext())
+				execute(ts.next(), e, true);
 		}
 		
 		logEventEnd();
 	}
 	
-	private static long startEvent;
-	@Nullable
-	private static Timing timing;
+	/**
+	 * Runs the triggers of an asynchronous event on the current thread. Triggers which are not {@link Trigger#isAsyncSafe() async safe} are run on the main thread instead,
+	 * while this thread waits for them to finish, thus all triggers are run in the given order.
+	 * 
+	 * @param e
+	 * @param triggers
+	 * @param check Whether to {@link SkriptEvent#check(Event) check} the event for every trigger before running it
+	 */
+	public static void executeAsync(final Event e, final List<Trigger> triggers, final boolean check) {
+		int i = 0;
+		while (i < triggers.size()) {
+			if (triggers.get(i).isAsyncSafe()) {
+				execute(triggers.get(i), e, check);
+				i++;
+				continue;
+			}
+			int j = i + 1;
+			while (j < triggers.size() && !triggers.get(j).isAsyncSafe())
+				j++;
+			final List<Trigger> sync = triggers.subList(i, j);
+			Task.callSync(new Callable<Void>() {
+				@Override
+				@Nullable
+				public Void call() throws Exception {
+					for (final Trigger t : sync) {
+						assert t != null;
+						execute(t, e, check);
+					}
+					return null;
+				}
+			});
+			i = j;
+		}
+	}
+	
+	private static void execute(final Trigger t, final Event e, final boolean check) {
+		if (check && !t.getEvent().check(e))
+			return;
+		logTriggerStart(t);
+		t.execute(e);
+		logTriggerEnd(t);
+	}
 	
 	@SuppressWarnings("null")
 	public static void logEventStart(final Event e) {
-		if (Timings.enabled())
-			timing = Timings.of(e.getEventName());
+		if (Timings.enabled() || Skript.logVeryHigh())
+			Timings.start(e.getClass(), e.getEventName());
 		
-		startEvent = System.nanoTime();
 		if (!Skript.logVeryHigh())
 			return;
 		Skript.info("");
@@ -173,34 +228,29 @@ public abstract class SkriptEventHandler {
 	}
 	
 	public static void logEventEnd() {
-		if (timing != null)
-			timing.setEventTime(System.nanoTime() - startEvent);
+		final Object event = Timings.current();
+		final long time = event instanceof Class ? Timings.stop(event) : -1;
 		
-		if (!Skript.logVeryHigh())
+		if (!Skript.logVeryHigh() || time == -1)
 			return;
-		Skript.info("== took " + 1. * (System.nanoTime() - startEvent) / 1000000. + " milliseconds ==");
+		Skript.info("== took " + 1. * time / 1000000. + " milliseconds ==");
 	}
 	
-	static long startTrigger;
-	
 	public static void logTriggerStart(final Trigger t) {
-		startTrigger = System.nanoTime();
+		if (Timings.enabled() || Skript.logVeryHigh())
+			Timings.start(t, t.getTimingName());
+		
 		if (!Skript.logVeryHigh())
 			return;
 		Skript.info("# " + t.getName());
 	}
 	
 	public static void logTriggerEnd(final Trigger t) {
-		if (timing != null)
-			timing.addTrigger(t, System.nanoTime() - startTrigger);
+		final long time = Timings.stop(t);
 		
-		if (!Skript.logVeryHigh())
+		if (!Skript.logVeryHigh() || time == -1)
 			return;
-		Skript.info("# " + t.getName() + " took " + 1. * (System.nanoTime() - startTrigger) / 1000000. + " milliseconds");
-	}
-	
-	public static void removeTiming() {
-		timing = null;
+		Skript.info("# " + t.getName() + " took " + 1. * time / 1000000. + " milliseconds");
 	}
 	
 	public static void addTrigger(final Class<? extends Event>[] events, final Trigger trigger) {
@@ -254,6 +304,9 @@ public abstract class SkriptEventHandler {
 		
 		info.functions = Functions.clearFunctions(script);
 		
+		TimingWheel.cancel(script);
+		ScriptOptions.getInstance().setContinuationPriority(script, 0);
+		
 		return info;
 	}
 	
@@ -262,6 +315,8 @@ public abstract class SkriptEventHandler {
 		for (final Trigger t : selfRegisteredTriggers)
 			((SelfRegisteringSkriptEvent) t.getEvent()).unregisterAll();
 		selfRegisteredTriggers.clear();
+		TimingWheel.cancelScripts();
+		ScriptOptions.getInstance().clearContinuationPriorities();
 //		unregisterEvents();
 	}
 	
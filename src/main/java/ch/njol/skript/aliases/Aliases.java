@@ -28,9 +28,11 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemStack;
@@ -49,6 +51,7 @@ import ch.njol.skript.localization.Message;
 import ch.njol.skript.localization.Noun;
 import ch.njol.skript.localization.RegexMessage;
 import ch.njol.skript.log.BlockingLogHandler;
+import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.EnchantmentType;
 import ch.njol.skript.util.PotionEffectUtils;
@@ -521,18 +524,85 @@ public abstract class Aliases {
 	private final static RegexMessage p_of_every = new RegexMessage("aliases.of every", "(\\d+) ", " (.+)", Pattern.CASE_INSENSITIVE);
 	private final static RegexMessage p_of = new RegexMessage("aliases.of", "(\\d+) (?:", " )?(.+)", Pattern.CASE_INSENSITIVE);
 	
+	/**
+	 * Least recently used cache of strings parsed by {@link #parseItemType(String)}, including strings that are not item types.
+	 */
+	private final static class ParseCache extends LinkedHashMap<String, ItemType> {
+		private final static long serialVersionUID = 4262173562186584331L;
+		
+		private final static int MAX_SIZE = 1000;
+		
+		/**
+		 * Marks strings that are not item types
+		 */
+		final static ItemType INVALID = new ItemType();
+		
+		ParseCache() {
+			super(16, 0.75f, true);
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(final @Nullable Entry<String, ItemType> eldest) {
+			return size() > MAX_SIZE;
+		}
+	}
+	
+	private final static ParseCache parseCache_english = new ParseCache();
+	private final static ParseCache parseCache_localised = new ParseCache();
+	
+	private final static ParseCache getParseCache() {
+		return Language.isUsingLocal() ? parseCache_localised : parseCache_english;
+	}
+	
+	/**
+	 * Clears the cache of parsed item types. Must be called whenever the aliases or the current script's aliases change.
+	 */
+	public final static void clearParseCache() {
+		synchronized (parseCache_english) {
+			parseCache_english.clear();
+		}
+		synchronized (parseCache_localised) {
+			parseCache_localised.clear();
+		}
+	}
+	
 	/**
 	 * Parses an ItemType.
 	 * <p>
 	 * Prints errors.
+	 * <p>
+	 * Results are cached if parsing them didn't log any warnings or errors, which are thus still printed every time the string is parsed.
 	 * 
 	 * @param s
 	 * @return The parsed ItemType or null if the input is invalid.
 	 */
 	@Nullable
-	public static ItemType parseItemType(String s) {
+	public static ItemType parseItemType(final String s) {
 		if (s.isEmpty())
 			return null;
+		final ParseCache cache = getParseCache();
+		synchronized (cache) {
+			final ItemType t = cache.get(s);
+			if (t != null)
+				return t == ParseCache.INVALID ? null : t.clone();
+		}
+		final ItemType t;
+		final CountingLogHandler log = SkriptLogger.startLogHandler(new CountingLogHandler(Level.WARNING));
+		try {
+			t = parseItemType_i(s);
+		} finally {
+			log.stop();
+		}
+		if (log.getCount() == 0) {
+			synchronized (cache) {
+				cache.put(s, t == null ? ParseCache.INVALID : t.clone());
+			}
+		}
+		return t;
+	}
+	
+	@Nullable
+	private static ItemType parseItemType_i(String s) {
 		s = "" + s.trim();
 		
 		final ItemType t = new ItemType();
@@ -681,7 +751,7 @@ public abstract class Aliases {
 			return i.clone();
 		boolean b;
 		if ((b = lc.endsWith(" " + blockSingular)) || lc.endsWith(" " + blockPlural)) {
-			if ((i = getAlias_i("" + s.substring(0, s.length() - (b ? blockSingular.length() : blockPlural.length()) - 1))) != null) {
+			if ((i = getAlias_i("" + lc.substring(0, lc.length() - (b ? blockSingular.length() : blockPlural.length()) - 1))) != null) {
 				i = i.clone();
 				for (int j = 0; j < i.numTypes(); j++) {
 					final ItemData d = i.getTypes().get(j);
@@ -695,7 +765,8 @@ public abstract class Aliases {
 				return i;
 			}
 		} else if ((b = lc.endsWith(" " + itemSingular)) || lc.endsWith(" " + itemPlural)) {
-			if ((i = getAlias_i("" + s.substring(0, s.length() - (b ? itemSingular.length() : itemPlural.length()) - 1))) != null) {
+			if ((i = getAlias_i("" + lc.substring(0, lc.length() - (b ? itemSingular.length() : itemPlural.length()) - 1))) != null) {
+				i = i.clone();
 				for (int j = 0; j < i.numTypes(); j++) {
 					final ItemData d = i.getTypes().get(j);
 					if (d.getId() != -1 && d.getId() <= Skript.MAXBLOCKID) {
@@ -742,6 +813,7 @@ public abstract class Aliases {
 	}
 	
 	public static void clear() {
+		clearParseCache();
 		aliases_english.clear();
 		aliases_localised.clear();
 		materialNames_english.clear();
@@ -749,6 +821,7 @@ public abstract class Aliases {
 	}
 	
 	public static void load() {
+		clearParseCache();
 		
 		final boolean wasLocal = Language.isUsingLocal();
 		try {
@@ -757,9 +830,30 @@ public abstract class Aliases {
 				if (l == 1 && !Language.isUsingLocal())
 					break;
 				
+				final File file = new File(Skript.getInstance().getDataFolder(), "aliases-" + Language.getName() + ".sk");
+				final File cacheFile = new File(Skript.getInstance().getDataFolder(), "aliases-" + Language.getName() + ".cache");
+				final long start = System.nanoTime();
+				long checksum = 0;
+				if (file.exists()) {
+					try {
+						checksum = AliasesCache.checksum(file, "" + Skript.getVersion(), "" + Bukkit.getVersion(), m_any.toString());
+						final int num = AliasesCache.load(cacheFile, checksum, getAliases(), getMaterialNames());
+						if (num != -1) {
+							if (Skript.logNormal())
+								Skript.info(m_loaded_x_aliases.toString(num));
+							if (Skript.logVeryHigh())
+								Skript.info("Loaded the aliases from " + cacheFile.getName() + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+							addMissingMaterialNames();
+							continue;
+						}
+					} catch (final IOException e) {
+						if (Skript.logHigh())
+							Skript.info("Could not load the aliases cache " + cacheFile.getName() + ", the aliases will be parsed instead: " + e.getLocalizedMessage());
+					}
+				}
+				
 				final Config aliasConfig;
 				try {
-					final File file = new File(Skript.getInstance().getDataFolder(), "aliases-" + Language.getName() + ".sk");
 					if (!file.exists()) {
 						Skript.error("Could not find the " + Language.getName() + " aliases file " + file.getName());
 					}
@@ -769,99 +863,116 @@ public abstract class Aliases {
 					return;
 				}
 				
-				final ArrayList<String> aliasNodes = new ArrayList<String>();
-				
-				aliasConfig.validate(
-						new SectionValidator()
-								.addEntry("aliases", new Setter<String>() {
-									@Override
-									public void set(final String s) {
-										for (final String n : s.split(","))
-											aliasNodes.add(n.trim());
-									}
-								}, false)
-								.addEntry("item", new Setter<String>() {
-									@Override
-									public void set(final String s) {
-										final NonNullPair<String, Integer> g = Noun.stripGender(s, "item");
-										itemGender = Noun.getGenderID(g.getSecond());
-										final NonNullPair<String, String> p = Noun.getPlural(g.getFirst());
-										itemSingular = "" + p.getFirst().toLowerCase();
-										itemPlural = "" + p.getSecond().toLowerCase();
-									}
-								}, false)
-								.addEntry("block", new Setter<String>() {
-									@Override
-									public void set(final String s) {
-										final NonNullPair<String, Integer> g = Noun.stripGender(s, "block");
-										blockGender = Noun.getGenderID(g.getSecond());
-										final NonNullPair<String, String> p = Noun.getPlural(g.getFirst());
-										blockSingular = "" + p.getFirst().toLowerCase();
-										blockPlural = "" + p.getSecond().toLowerCase();
-									}
-								}, false)
-								.setAllowUndefinedSections(true));
-				
-				for (final Node node : aliasConfig.getMainNode()) {
-					if (node instanceof SectionNode) {
-						if (!aliasNodes.contains(node.getKey())) {
-							Skript.error(m_invalid_section.toString(node.getKey()));
-						}
-					}
-				}
-				
-				final Variations variations = new Variations();
+				final CountingLogHandler numErrors = SkriptLogger.startLogHandler(new CountingLogHandler(SkriptLogger.SEVERE));
 				int num = 0;
-				for (final String an : aliasNodes) {
-					final Node node = aliasConfig.getMainNode().get(an);
-					SkriptLogger.setNode(node);
-					if (node == null) {
-						Skript.error(m_section_not_found.toString(an));
-						continue;
-					}
-					if (!(node instanceof SectionNode)) {
-						Skript.error(m_not_a_section.toString(an));
-						continue;
-					}
-					int i = 0;
-					for (final Node n : (SectionNode) node) {
-						if (n instanceof EntryNode) {
-							i += addAliases(((EntryNode) n).getKey(), ((EntryNode) n).getValue(), variations);
-						} else if (n instanceof SectionNode) {
-							final String key = n.getKey();
-							if (key == null) {
-								assert false;
-								continue;
-							}
-							if (!(key.startsWith("{") && key.endsWith("}"))) {
-								Skript.error(m_unexpected_non_variation_section.toString());
-								continue;
+				try {
+					final ArrayList<String> aliasNodes = new ArrayList<String>();
+					
+					aliasConfig.validate(
+							new SectionValidator()
+									.addEntry("aliases", new Setter<String>() {
+										@Override
+										public void set(final String s) {
+											for (final String n : s.split(","))
+												aliasNodes.add(n.trim());
+										}
+									}, false)
+									.addEntry("item", new Setter<String>() {
+										@Override
+										public void set(final String s) {
+											final NonNullPair<String, Integer> g = Noun.stripGender(s, "item");
+											itemGender = Noun.getGenderID(g.getSecond());
+											final NonNullPair<String, String> p = Noun.getPlural(g.getFirst());
+											itemSingular = "" + p.getFirst().toLowerCase();
+											itemPlural = "" + p.getSecond().toLowerCase();
+										}
+									}, false)
+									.addEntry("block", new Setter<String>() {
+										@Override
+										public void set(final String s) {
+											final NonNullPair<String, Integer> g = Noun.stripGender(s, "block");
+											blockGender = Noun.getGenderID(g.getSecond());
+											final NonNullPair<String, String> p = Noun.getPlural(g.getFirst());
+											blockSingular = "" + p.getFirst().toLowerCase();
+											blockPlural = "" + p.getSecond().toLowerCase();
+										}
+									}, false)
+									.setAllowUndefinedSections(true));
+					
+					for (final Node node : aliasConfig.getMainNode()) {
+						if (node instanceof SectionNode) {
+							if (!aliasNodes.contains(node.getKey())) {
+								Skript.error(m_invalid_section.toString(node.getKey()));
 							}
-							final HashMap<String, ItemType> vs = new HashMap<String, ItemType>();
-							for (final Node a : (SectionNode) n) {
-								if (a instanceof SectionNode) {
-									Skript.error(m_unexpected_section.toString());
+						}
+					}
+					
+					final Variations variations = new Variations();
+					for (final String an : aliasNodes) {
+						final Node node = aliasConfig.getMainNode().get(an);
+						SkriptLogger.setNode(node);
+						if (node == null) {
+							Skript.error(m_section_not_found.toString(an));
+							continue;
+						}
+						if (!(node instanceof SectionNode)) {
+							Skript.error(m_not_a_section.toString(an));
+							continue;
+						}
+						int i = 0;
+						for (final Node n : (SectionNode) node) {
+							if (n instanceof EntryNode) {
+								i += addAliases(((EntryNode) n).getKey(), ((EntryNode) n).getValue(), variations);
+							} else if (n instanceof SectionNode) {
+								final String key = n.getKey();
+								if (key == null) {
+									assert false;
 									continue;
-								} else if (!(a instanceof EntryNode)) {
+								}
+								if (!(key.startsWith("{") && key.endsWith("}"))) {
+									Skript.error(m_unexpected_non_variation_section.toString());
 									continue;
 								}
-								final boolean noDefault = ((EntryNode) a).getValue().isEmpty() && ((EntryNode) a).getKey().equalsIgnoreCase("{default}");
-								final ItemType t = noDefault ? null : parseAlias(((EntryNode) a).getValue());
-								if (t != null || noDefault)
-									vs.put(Noun.normalizePluralMarkers(((EntryNode) a).getKey()), t);
+								final HashMap<String, ItemType> vs = new HashMap<String, ItemType>();
+								for (final Node a : (SectionNode) n) {
+									if (a instanceof SectionNode) {
+										Skript.error(m_unexpected_section.toString());
+										continue;
+									} else if (!(a instanceof EntryNode)) {
+										continue;
+									}
+									final boolean noDefault = ((EntryNode) a).getValue().isEmpty() && ((EntryNode) a).getKey().equalsIgnoreCase("{default}");
+									final ItemType t = noDefault ? null : parseAlias(((EntryNode) a).getValue());
+									if (t != null || noDefault)
+										vs.put(Noun.normalizePluralMarkers(((EntryNode) a).getKey()), t);
+								}
+								variations.put(key.substring(1, key.length() - 1), vs);
 							}
-							variations.put(key.substring(1, key.length() - 1), vs);
 						}
+						if (Skript.logVeryHigh())
+							Skript.info(m_loaded_x_aliases_from.toString(i, node.getKey()));
+						num += i;
 					}
-					if (Skript.logVeryHigh())
-						Skript.info(m_loaded_x_aliases_from.toString(i, node.getKey()));
-					num += i;
+					SkriptLogger.setNode(null);
+				} finally {
+					numErrors.stop();
 				}
-				SkriptLogger.setNode(null);
 				
 				if (Skript.logNormal())
 					Skript.info(m_loaded_x_aliases.toString(num));
 				
+				// aliases files with errors are not cached so that the errors are printed again on the next start
+				if (checksum != 0 && numErrors.getCount() == 0) {
+					try {
+						AliasesCache.save(cacheFile, checksum, num, getAliases(), getMaterialNames());
+						if (Skript.logVeryHigh())
+							Skript.info("Parsed the aliases in " + (System.nanoTime() - start) / 1000000 + " ms and saved them to " + cacheFile.getName());
+					} catch (final IOException e) {
+						if (Skript.logHigh())
+							Skript.info("Could not save the aliases cache " + cacheFile.getName() + ": " + e.getLocalizedMessage());
+					}
+				}
+				
 				addMissingMaterialNames();
 				
 //			if (!SkriptConfig.keepConfigsLoaded.value())
@@ -0,0 +1,271 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.aliases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.util.NonNullPair;
+
+/**
+ * Stores the fully expanded aliases of an aliases file in a compact binary file, which can be loaded much faster than parsing and expanding the aliases file again.
+ * <p>
+ * The cache is tied to a checksum of the aliases file and everything else that influences the parsed aliases (e.g. the Skript and Minecraft versions), and is
+ * ignored (and later overwritten) if any of these change. The cache's contents are additionally protected by a CRC32 to detect incompletely written files.
+ */
+final class AliasesCache {
+	
+	private AliasesCache() {}
+	
+	private final static int MAGIC = 0x534B4143; // "SKAC"
+	private final static int VERSION = 1;
+	
+	@SuppressWarnings("null")
+	private final static Charset UTF_8 = Charset.forName("UTF-8");
+	
+	/**
+	 * @param source The aliases file
+	 * @param context Everything besides the aliases file that influences the parsed aliases
+	 * @return A checksum of the given file and context
+	 * @throws IOException If the file could not be read
+	 */
+	public static long checksum(final File source, final String... context) throws IOException {
+		final CRC32 crc = new CRC32();
+		crc.update(Files.readAllBytes(source.toPath()));
+		for (final String s : context) {
+			crc.update(0);
+			crc.update(s.getBytes(UTF_8));
+		}
+		return source.length() << 32 | crc.getValue();
+	}
+	
+	/**
+	 * Loads the given cache into the given maps and the item and block nouns of {@link Aliases} if it is up to date.
+	 * 
+	 * @return The number of aliases stored in the cache, or -1 if the cache doesn't exist or is outdated. The maps and nouns are only modified if the whole cache could
+	 *         be loaded.
+	 * @throws IOException If the cache could not be read or is corrupted
+	 */
+	@SuppressWarnings("null")
+	public static int load(final File cache, final long checksum, final Map<String, ItemType> aliases, final Map<Integer, MaterialName> materialNames) throws IOException {
+		if (!cache.exists())
+			return -1;
+		final CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(new FileInputStream(cache)), new CRC32());
+		final DataInputStream in = new DataInputStream(checked);
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != checksum)
+				return -1;
+			
+			final String itemSingular = in.readUTF(), itemPlural = in.readUTF(), itemGender = readNullableUTF(in);
+			final String blockSingular = in.readUTF(), blockPlural = in.readUTF(), blockGender = readNullableUTF(in);
+			final int numAliases = in.readInt();
+			
+			final ItemType[] types = new ItemType[in.readInt()];
+			final int[] items = new int[types.length], blocks = new int[types.length];
+			for (int i = 0; i < types.length; i++) {
+				final ItemType t = types[i] = new ItemType();
+				final int numDatas = in.readInt();
+				for (int j = 0; j < numDatas; j++) {
+					final ItemData d = new ItemData(in.readInt());
+					d.dataMin = in.readShort();
+					d.dataMax = in.readShort();
+					t.add(d);
+				}
+				t.setAll(in.readBoolean());
+				t.setAmount(in.readInt());
+				t.setIgnoreMeta(in.readBoolean());
+				items[i] = in.readInt();
+				blocks[i] = in.readInt();
+			}
+			// item and block types are set afterwards as they can reference item types stored later
+			for (int i = 0; i < types.length; i++) {
+				if (items[i] != -1)
+					types[i].setItem(get(types, items[i]));
+				if (blocks[i] != -1)
+					types[i].setBlock(get(types, blocks[i]));
+			}
+			
+			final int numEntries = in.readInt();
+			final HashMap<String, ItemType> newAliases = new HashMap<String, ItemType>(2 * numEntries);
+			for (int i = 0; i < numEntries; i++)
+				newAliases.put(in.readUTF(), get(types, in.readInt()));
+			
+			final int numNames = in.readInt();
+			final HashMap<Integer, MaterialName> newNames = new HashMap<Integer, MaterialName>(2 * numNames);
+			for (int i = 0; i < numNames; i++) {
+				final int id = in.readInt();
+				final MaterialName n = new MaterialName(id, in.readUTF(), in.readUTF(), in.readInt());
+				final int numDataNames = in.readInt();
+				for (int j = 0; j < numDataNames; j++) {
+					final NonNullPair<Short, Short> data = new NonNullPair<Short, Short>(Short.valueOf(in.readShort()), Short.valueOf(in.readShort()));
+					n.names.put(data, new NonNullPair<String, String>(in.readUTF(), in.readUTF()));
+				}
+				newNames.put(Integer.valueOf(id), n);
+			}
+			
+			final long crc = checked.getChecksum().getValue();
+			if (in.readLong() != crc)
+				throw new StreamCorruptedException("Checksum mismatch");
+			
+			aliases.putAll(newAliases);
+			materialNames.putAll(newNames);
+			Aliases.itemSingular = itemSingular;
+			Aliases.itemPlural = itemPlural;
+			Aliases.itemGender = itemGender;
+			Aliases.blockSingular = blockSingular;
+			Aliases.blockPlural = blockPlural;
+			Aliases.blockGender = blockGender;
+			return numAliases;
+		} finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Writes the given aliases and material names to the given cache file.
+	 * 
+	 * @param numAliases The number of aliases as reported when parsing the aliases file
+	 * @throws NotSerializableException If an alias has enchantments or ItemMeta, which can't be stored in the cache. The cache file is deleted in this case.
+	 * @throws IOException If the cache could not be written
+	 */
+	@SuppressWarnings("null")
+	public static void save(final File cache, final long checksum, final int numAliases, final Map<String, ItemType> aliases, final Map<Integer, MaterialName> materialNames) throws IOException {
+		final IdentityHashMap<ItemType, Integer> indices = new IdentityHashMap<ItemType, Integer>();
+		final List<ItemType> types = new ArrayList<ItemType>();
+		for (final ItemType t : aliases.values())
+			index(t, indices, types);
+		
+		final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(cache)), new CRC32());
+		final DataOutputStream out = new DataOutputStream(checked);
+		boolean success = false;
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(checksum);
+			
+			out.writeUTF(Aliases.itemSingular);
+			out.writeUTF(Aliases.itemPlural);
+			writeNullableUTF(out, Aliases.itemGender);
+			out.writeUTF(Aliases.blockSingular);
+			out.writeUTF(Aliases.blockPlural);
+			writeNullableUTF(out, Aliases.blockGender);
+			out.writeInt(numAliases);
+			
+			out.writeInt(types.size());
+			for (final ItemType t : types) {
+				out.writeInt(t.numTypes());
+				for (final ItemData d : t) {
+					out.writeInt(d.typeid);
+					out.writeShort(d.dataMin);
+					out.writeShort(d.dataMax);
+				}
+				out.writeBoolean(t.isAll());
+				out.writeInt(t.getInternalAmount());
+				out.writeBoolean(t.doesIgnoreMeta());
+				out.writeInt(t.getItem() == t ? -1 : indices.get(t.getItem()).intValue());
+				out.writeInt(t.getBlock() == t ? -1 : indices.get(t.getBlock()).intValue());
+			}
+			
+			out.writeInt(aliases.size());
+			for (final Entry<String, ItemType> e : aliases.entrySet()) {
+				out.writeUTF(e.getKey());
+				out.writeInt(indices.get(e.getValue()).intValue());
+			}
+			
+			out.writeInt(materialNames.size());
+			for (final Entry<Integer, MaterialName> e : materialNames.entrySet()) {
+				final MaterialName n = e.getValue();
+				out.writeInt(e.getKey().intValue());
+				out.writeUTF(n.singular);
+				out.writeUTF(n.plural);
+				out.writeInt(n.gender);
+				out.writeInt(n.names.size());
+				for (final Entry<NonNullPair<Short, Short>, NonNullPair<String, String>> name : n.names.entrySet()) {
+					out.writeShort(name.getKey().getFirst().shortValue());
+					out.writeShort(name.getKey().getSecond().shortValue());
+					out.writeUTF(name.getValue().getFirst());
+					out.writeUTF(name.getValue().getSecond());
+				}
+			}
+			
+			out.flush();
+			out.writeLong(checked.getChecksum().getValue());
+			success = true;
+		} finally {
+			out.close();
+			if (!success)
+				cache.delete();
+		}
+	}
+	
+	private static void index(final ItemType t, final IdentityHashMap<ItemType, Integer> indices, final List<ItemType> types) throws NotSerializableException {
+		if (indices.containsKey(t))
+			return;
+		if (t.enchantments != null || t.meta != null)
+			throw new NotSerializableException("Aliases with enchantments or item meta can not be cached");
+		indices.put(t, Integer.valueOf(types.size()));
+		types.add(t);
+		if (t.getItem() != t)
+			index(t.getItem(), indices, types);
+		if (t.getBlock() != t)
+			index(t.getBlock(), indices, types);
+	}
+	
+	private static ItemType get(final ItemType[] types, final int i) throws StreamCorruptedException {
+		if (i < 0 || i >= types.length)
+			throw new StreamCorruptedException("Invalid item type reference " + i);
+		return types[i];
+	}
+	
+	@Nullable
+	private static String readNullableUTF(final DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+	
+	private static void writeNullableUTF(final DataOutputStream out, final @Nullable String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null)
+			out.writeUTF(s);
+	}
+	
+}
@@ -112,6 +112,12 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	private boolean ignoreMeta = false;
 	
+	/**
+	 * Built when first needed, and reset by {@link #modified()}.
+	 */
+	@Nullable
+	private transient ItemTypeMatcher matcher = null;
+	
 	void setItem(final @Nullable ItemType item) {
 		if (equals(item)) { // can happen if someone defines a 'x' and 'x item/block' alias that have the same value, e.g. 'dirt' and 'dirt block'
 			this.item = null;
@@ -196,6 +202,17 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	public void modified() {
 		item = block = null;
+		matcher = null;
+	}
+	
+	/**
+	 * @return A matcher for the ids and data values of this item type's item datas. The matcher is only valid until this item type is modified.
+	 */
+	public ItemTypeMatcher getMatcher() {
+		ItemTypeMatcher m = matcher;
+		if (m == null)
+			matcher = m = new ItemTypeMatcher(types);
+		return m;
 	}
 	
 	/**
@@ -295,9 +312,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	public boolean isOfType(final @Nullable ItemStack item) {
 		if (item == null)
 			return isOfType(0, (short) 0);
-		if (!hasMeta(item))
-			return false;
-		return isOfType(item.getTypeId(), item.getDurability());
+		return isOfType(item.getTypeId(), item.getDurability()) && hasMeta(item);
 	}
 	
 	public boolean isOfType(final @Nullable Block block) {
@@ -310,11 +325,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 	
 	public boolean isOfType(final int id, final short data) {
-		for (final ItemData type : types) {
-			if (type.isOfType(id, data))
-				return true;
-		}
-		return false;
+		return getMatcher().matches(id, data);
 	}
 	
 	public boolean isSupertypeOf(final ItemType other) {
@@ -734,33 +745,27 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 	
 	public boolean isContainedIn(final Inventory invi) {
-		return isContainedIn((Iterable<ItemStack>) invi);
+		return isContainedIn(invi.getContents());
 	}
 	
 	public boolean isContainedIn(final Iterable<ItemStack> items) {
-		for (final ItemData d : types) {
-			int found = 0;
-			for (final ItemStack i : items) {
-				if (d.isOfType(i) && hasMeta(i)) {
-					found += i == null ? 1 : i.getAmount();
-					if (found >= getAmount()) {
-						if (!all)
-							return true;
-						break;
-					}
-				}
-			}
-			if (all && found < getAmount())
-				return false;
-		}
-		return all;
+		final List<ItemStack> list = new ArrayList<ItemStack>();
+		for (final ItemStack i : items)
+			list.add(i);
+		return isContainedIn(list);
 	}
 	
 	public boolean isContainedIn(final ItemStack[] list) {
+		return isContainedIn(Arrays.asList(list));
+	}
+	
+	private boolean isContainedIn(final List<ItemStack> list) {
+		final int[] matches = findMatches(list, true);
 		for (final ItemData d : types) {
 			int found = 0;
-			for (final ItemStack i : list) {
-				if (d.isOfType(i) && hasMeta(i)) {
+			for (final int slot : matches) {
+				final ItemStack i = list.get(slot);
+				if (d.isOfType(i)) {
 					found += i == null ? 1 : i.getAmount();
 					if (found >= getAmount()) {
 						if (!all)
@@ -795,15 +800,41 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 * @return Whether everything could be removed from the inventory
 	 */
 	public boolean removeFrom(final Inventory invi) {
-		final ItemStack[] buf = oldInvSize ? getStorageContents(invi) : getCopiedContents(invi);
-		final ItemStack[] armour = invi instanceof PlayerInventory && !oldInvSize ? ((PlayerInventory) invi).getArmorContents() : null;
-		
-		@SuppressWarnings("unchecked")
-		final boolean ok = removeFrom(Arrays.asList(buf), armour == null ? null : Arrays.asList(armour));
-		
+		return removeFrom(invi, false, this);
+	}
+	
+	/**
+	 * Removes all given types from the given inventory, reading and writing the inventory's contents only once. Does not call updateInventory for players.
+	 * 
+	 * @param invi
+	 * @param types
+	 * @return Whether all types could be removed completely from the inventory
+	 */
+	public final static boolean removeFrom(final Inventory invi, final ItemType... types) {
+		return removeFrom(invi, false, types);
+	}
+	
+	/**
+	 * Removes every item of any of the given types from the given inventory, reading and writing the inventory's contents only once. Does not call updateInventory
+	 * for players.
+	 * 
+	 * @param invi
+	 * @param types
+	 * @return Whether all types were present in the inventory
+	 */
+	public final static boolean removeAll(final Inventory invi, final ItemType... types) {
+		return removeFrom(invi, true, types);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private final static boolean removeFrom(final Inventory invi, final boolean removeAll, final ItemType... types) {
+		// getContents() includes the armour slots since 1.9, and as the whole contents are written back the stacks don't have to be copied
+		final ItemStack[] buf = oldInvSize ? getStorageContents(invi) : invi.getContents();
+		final List<ItemStack> list = Arrays.asList(buf);
+		boolean ok = true;
+		for (final ItemType t : types)
+			ok &= removeAll ? t.removeAll(list) : t.removeFrom(list);
 		invi.setContents(buf);
-		if (armour != null)
-			((PlayerInventory) invi).setArmorContents(armour);
 		return ok;
 	}
 	
@@ -828,16 +859,23 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		int removed = 0;
 		boolean ok = true;
 		
+		final int[][] matches = new int[lists.length][];
+		for (int l = 0; l < lists.length; l++) {
+			if (lists[l] != null)
+				matches[l] = findMatches(lists[l], false);
+		}
+		
 		for (final ItemData d : types) {
 			if (all)
 				removed = 0;
-			for (final List<ItemStack> list : lists) {
+			for (int l = 0; l < lists.length; l++) {
+				final List<ItemStack> list = lists[l];
 				if (list == null)
 					continue;
 				assert list instanceof RandomAccess;
-				for (int i = 0; i < list.size(); i++) {
+				for (final int i : matches[l]) {
 					final ItemStack is = list.get(i);
-					if (is != null && d.isOfType(is) && hasMeta(is)) {
+					if (is != null && d.isOfType(is)) {
 						if (all && amount == -1) {
 							list.set(i, null);
 							removed = 1;
@@ -867,6 +905,26 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		return ok;
 	}
 	
+	/**
+	 * Finds the slots of the given list that contain an item of this type. Checking the id and data through the {@link #getMatcher() matcher} first and the
+	 * ItemMeta only once per slot allows the loops over the individual item datas to only check these slots.
+	 * 
+	 * @param list
+	 * @param includeEmpty Whether to include empty slots if this type matches air
+	 * @return The indices of the matching slots in ascending order
+	 */
+	private int[] findMatches(final List<ItemStack> list, final boolean includeEmpty) {
+		final ItemTypeMatcher matcher = getMatcher();
+		final int[] matches = new int[list.size()];
+		int n = 0;
+		for (int i = 0; i < matches.length; i++) {
+			final ItemStack is = list.get(i);
+			if (is == null ? includeEmpty && matcher.matchesId(0) && hasMeta(null) : matcher.matches(is.getTypeId(), is.getDurability()) && hasMeta(is))
+				matches[n++] = i;
+		}
+		return n == matches.length ? matches : Arrays.copyOf(matches, n);
+	}
+	
 	/**
 	 * Adds this ItemType to the given list, without filling existing stacks.
 	 * 
@@ -893,6 +951,17 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}*/
 
 	public boolean addTo(final Inventory invi) {
+		return addTo(invi, this);
+	}
+	
+	/**
+	 * Tries to add all given types to the given inventory, reading and writing the inventory's contents only once. Does not call updateInventory for players.
+	 * 
+	 * @param invi
+	 * @param types
+	 * @return Whether everything could be added to the inventory
+	 */
+	public final static boolean addTo(final Inventory invi, final ItemType... types) {
 		// important: don't use inventory.add() - it ignores max stack sizes
 		ItemStack[] buf = invi.getContents();
 		if (buf == null)
@@ -916,7 +985,9 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 			}
 		}
 		
-		final boolean b = addTo(buf);
+		boolean b = true;
+		for (final ItemType t : types)
+			b &= t.addTo(buf);
 		
 		if (!oldInvSize) {
 			if (invi instanceof PlayerInventory) {
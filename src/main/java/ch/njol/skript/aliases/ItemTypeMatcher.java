@@ -0,0 +1,180 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.aliases;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Matches ids and data values against all {@link ItemData}s of an {@link ItemType} in constant time (apart from unusually high data values).
+ * <p>
+ * Contains a bitset of all matched ids (offset by the lowest matched id) and for each of these ids a bitmask of the matched data values from 0 to 63, which covers all block data and most item data
+ * values. Higher data values are checked against the original data ranges. Item datas which match any id are handled separately.
+ * @see ItemType#getMatcher()
+ */
+@Immutable
+public final class ItemTypeMatcher {
+	
+	/**
+	 * Number of data values covered by the data masks
+	 */
+	public final static int MASK_SIZE = 64;
+	
+	private final int minId;
+	private final long[] ids;
+	private final long[] dataMasks;
+	/**
+	 * Data ranges (pairs of minimum and maximum) of ranges which include data values beyond the data masks, or null if an id has no such ranges. Ranges matching any
+	 * data value are stored as (-1, -1), and -1 as maximum means no upper bound.
+	 */
+	@Nullable
+	private final short[][] highRanges;
+	
+	/**
+	 * Mask and ranges of item datas without an id
+	 */
+	private final long anyIdDataMask;
+	@Nullable
+	private final short[] anyIdHighRanges;
+	
+	ItemTypeMatcher(final Iterable<ItemData> types) {
+		int minId = Integer.MAX_VALUE, maxId = -1;
+		for (final ItemData d : types) {
+			if (d.typeid == -1)
+				continue;
+			minId = Math.min(minId, d.typeid);
+			maxId = Math.max(maxId, d.typeid);
+		}
+		this.minId = minId = maxId == -1 ? 0 : minId;
+		final int numIds = maxId - minId + 1;
+		ids = new long[(numIds + 63) >> 6];
+		dataMasks = new long[numIds];
+		final short[][] highRanges = new short[numIds][];
+		long anyIdDataMask = 0;
+		short[] anyIdHighRanges = null;
+		boolean hasHighRanges = false;
+		for (final ItemData d : types) {
+			final long mask = getDataMask(d);
+			final boolean high = d.dataMin == -1 || d.dataMax == -1 || d.dataMax >= MASK_SIZE;
+			if (d.typeid == -1) {
+				anyIdDataMask |= mask;
+				if (high)
+					anyIdHighRanges = addRange(anyIdHighRanges, d);
+			} else {
+				final int i = d.typeid - minId;
+				ids[i >> 6] |= 1L << i;
+				dataMasks[i] |= mask;
+				if (high) {
+					highRanges[i] = addRange(highRanges[i], d);
+					hasHighRanges = true;
+				}
+			}
+		}
+		this.highRanges = hasHighRanges ? highRanges : null;
+		this.anyIdDataMask = anyIdDataMask;
+		this.anyIdHighRanges = anyIdHighRanges;
+	}
+	
+	private static long getDataMask(final ItemData d) {
+		if (d.dataMin == -1)
+			return -1L;
+		if (d.dataMin >= MASK_SIZE)
+			return 0;
+		if (d.dataMax == -1)
+			return -1L << d.dataMin;
+		return (-1L >>> MASK_SIZE - 1 - Math.min(d.dataMax, MASK_SIZE - 1)) & (-1L << d.dataMin);
+	}
+	
+	private static short[] addRange(final @Nullable short[] ranges, final ItemData d) {
+		final short[] r = ranges == null ? new short[2] : Arrays.copyOf(ranges, ranges.length + 2);
+		r[r.length - 2] = d.dataMin;
+		r[r.length - 1] = d.dataMax;
+		return r;
+	}
+	
+	private static boolean inRanges(final @Nullable short[] ranges, final short data) {
+		if (ranges == null)
+			return false;
+		for (int i = 0; i < ranges.length; i += 2) {
+			if ((ranges[i] == -1 || ranges[i] <= data) && (ranges[i + 1] == -1 || data <= ranges[i + 1]))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return Whether any of the item type's item datas match the given id and data value
+	 */
+	public boolean matches(final int id, final short data) {
+		final int i = id - minId;
+		if (data >= 0 && data < MASK_SIZE) {
+			if ((anyIdDataMask >>> data & 1) != 0)
+				return true;
+			return i >= 0 && i < dataMasks.length && (dataMasks[i] >>> data & 1) != 0;
+		}
+		if (inRanges(anyIdHighRanges, data))
+			return true;
+		final short[][] highRanges = this.highRanges;
+		return highRanges != null && i >= 0 && i < dataMasks.length && inRanges(highRanges[i], data);
+	}
+	
+	/**
+	 * @return Whether any of the item type's item datas match the given id, independent of data values
+	 */
+	public boolean matchesId(final int id) {
+		final int i = id - minId;
+		return matchesAnyId() || i >= 0 && i < dataMasks.length && (ids[i >> 6] >>> i & 1) != 0;
+	}
+	
+	/**
+	 * @return Whether this matcher matches any id, i.e. whether the item type has an item data without an id
+	 */
+	public boolean matchesAnyId() {
+		return anyIdHighRanges != null || anyIdDataMask != 0;
+	}
+	
+	/**
+	 * @return The lowest specific id matched, or 0 if no specific ids are matched
+	 */
+	public int getMinId() {
+		return minId;
+	}
+	
+	/**
+	 * @return The highest specific id matched, or -1 if no specific ids are matched
+	 */
+	public int getMaxId() {
+		return dataMasks.length == 0 ? -1 : minId + dataMasks.length - 1;
+	}
+	
+	/**
+	 * @return A bitmask of the data values from 0 to {@link #MASK_SIZE}-1 that are matched for the given id
+	 */
+	public long getDataMask(final int id) {
+		final int i = id - minId;
+		return anyIdDataMask | (i >= 0 && i < dataMasks.length ? dataMasks[i] : 0);
+	}
+	
+}
@@ -41,6 +41,7 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.aliases.ItemType;
 import ch.njol.skript.bukkitutil.PlayerUtils;
 import ch.njol.skript.classes.Changer;
+import ch.njol.skript.classes.Changer.ChangeMode;
 import ch.njol.skript.util.Experience;
 import ch.njol.util.coll.CollectionUtils;
 
@@ -51,6 +52,34 @@ public class DefaultChangers {
 	
 	public DefaultChangers() {}
 	
+	/**
+	 * @return The given delta as item types if it only contains item types, or null otherwise
+	 */
+	@Nullable
+	final static ItemType[] getItemTypes(final @Nullable Object[] delta) {
+		if (delta == null)
+			return null;
+		final ItemType[] types = new ItemType[delta.length];
+		for (int i = 0; i < delta.length; i++) {
+			if (!(delta[i] instanceof ItemType))
+				return null;
+			types[i] = (ItemType) delta[i];
+		}
+		return types;
+	}
+	
+	/**
+	 * Adds or removes all given item types to or from the given inventory, reading and writing its contents only once.
+	 */
+	final static void changeItems(final Inventory invi, final ItemType[] types, final ChangeMode mode) {
+		if (mode == ChangeMode.ADD)
+			ItemType.addTo(invi, types);
+		else if (mode == ChangeMode.REMOVE)
+			ItemType.removeFrom(invi, types);
+		else
+			ItemType.removeAll(invi, types);
+	}
+	
 	public final static Changer<Entity> entityChanger = new Changer<Entity>() {
 		@SuppressWarnings("unchecked")
 		@Override
@@ -82,7 +111,17 @@ public class DefaultChangers {
 				}
 				return;
 			}
+			final ItemType[] types = getItemTypes(delta);
 			for (final Entity e : entities) {
+				if (types != null) {
+					if (e instanceof Player) {
+						final PlayerInventory invi = ((Player) e).getInventory();
+						if (invi != null)
+							changeItems(invi, types, mode);
+						PlayerUtils.updateInventory((Player) e);
+					}
+					continue;
+				}
 				for (final Object d : delta) {
 					if (d instanceof PotionEffectType) {
 						assert mode == ChangeMode.REMOVE || mode == ChangeMode.REMOVE_ALL;
@@ -198,6 +237,7 @@ public class DefaultChangers {
 		
 		@Override
 		public void change(final Inventory[] invis, final @Nullable Object[] delta, final ChangeMode mode) {
+			final ItemType[] types = getItemTypes(delta);
 			for (final Inventory invi : invis) {
 				assert invi != null;
 				switch (mode) {
@@ -235,6 +275,8 @@ public class DefaultChangers {
 									((ItemType) d).addTo(invi);
 								}
 							}
+						} else if (types != null) {
+							ItemType.addTo(invi, types);
 						} else {
 							for (final Object d : delta) {
 								if (d instanceof ItemStack) {
@@ -253,6 +295,10 @@ public class DefaultChangers {
 					case REMOVE:
 					case REMOVE_ALL:
 						assert delta != null;
+						if (types != null) {
+							changeItems(invi, types, mode);
+							break;
+						}
 						for (final Object d : delta) {
 							if (d instanceof Inventory) {
 								assert mode == ChangeMode.REMOVE;
@@ -290,6 +336,7 @@ public class DefaultChangers {
 		@SuppressWarnings("deprecation")
 		@Override
 		public void change(final Block[] blocks, final @Nullable Object[] delta, final ChangeMode mode) {
+			final ItemType[] types = getItemTypes(delta);
 			for (final Block block : blocks) {
 				assert block != null;
 				switch (mode) {
@@ -310,7 +357,9 @@ public class DefaultChangers {
 						final Inventory invi = ((InventoryHolder) state).getInventory();
 						if (invi == null)
 							continue;
-						if (mode == ChangeMode.ADD) {
+						if (types != null) {
+							changeItems(invi, types, mode);
+						} else if (mode == ChangeMode.ADD) {
 							for (final Object d : delta) {
 								if (d instanceof Inventory) {
 									for (final ItemStack i : (Inventory) d) {
@@ -0,0 +1,259 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.command;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.Parser;
+import ch.njol.skript.lang.ParseContext;
+import ch.njol.skript.lang.SkriptParser;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.util.coll.CollectionUtils;
+
+/**
+ * Parses the arguments of simple commands without going through {@link SkriptParser#parseArguments(String, ScriptCommand, ScriptCommandEvent)}.
+ * <p>
+ * Only patterns consisting of words and single text, number, integer, player or offline player arguments separated by spaces are supported, where text
+ * arguments must be last, and optional parts have to consist of whole words and arguments. Such a pattern is expanded into all its possible forms in the order
+ * {@link SkriptParser} tries them, which are then matched word by word against the given arguments. If an argument can't be parsed this class gives up and the
+ * arguments have to be parsed by the SkriptParser, which also takes care of converters and error messages.
+ */
+final class ArgumentMatcher {
+	
+	private final static Class<?>[] supportedTypes = {String.class, Number.class, Integer.class, Player.class, OfflinePlayer.class};
+	
+	/**
+	 * Maximum number of forms a pattern may expand to
+	 */
+	private final static int MAX_FORMS = 16;
+	
+	private final List<Argument<?>> arguments;
+	
+	/**
+	 * Each form is an array of words (Strings) and argument indices (Integers)
+	 */
+	private final Object[][] forms;
+	
+	/**
+	 * The parsers {@link Classes#parseSimple(String, Class, ParseContext)} would try for each argument, in the same order
+	 */
+	private final Parser<?>[][] parsers;
+	
+	private ArgumentMatcher(final List<Argument<?>> arguments, final Object[][] forms, final Parser<?>[][] parsers) {
+		this.arguments = arguments;
+		this.forms = forms;
+		this.parsers = parsers;
+	}
+	
+	/**
+	 * @param pattern The command's pattern as created by {@link Commands}
+	 * @param arguments The command's arguments
+	 * @return A matcher for the given pattern or null if the pattern is not supported
+	 */
+	@Nullable
+	public static ArgumentMatcher compile(final String pattern, final List<Argument<?>> arguments) {
+		final Parser<?>[][] parsers = new Parser<?>[arguments.size()][];
+		for (int i = 0; i < parsers.length; i++) {
+			final Argument<?> a = arguments.get(i);
+			if (!a.isSingle() || !CollectionUtils.contains(supportedTypes, a.getType()))
+				return null;
+			final List<Parser<?>> ps = new ArrayList<Parser<?>>();
+			for (final ClassInfo<?> ci : Classes.getClassInfos()) {
+				final Parser<?> p = ci.getParser();
+				if (p != null && p.canParse(ParseContext.COMMAND) && a.getType().isAssignableFrom(ci.getC()))
+					ps.add(p);
+			}
+			parsers[i] = ps.toArray(new Parser<?>[ps.size()]);
+		}
+		
+		final List<Object> root = new ArrayList<Object>();
+		final List<List<Object>> groups = new ArrayList<List<Object>>();
+		groups.add(root);
+		int numArguments = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			final char c = pattern.charAt(i);
+			final List<Object> current = groups.get(groups.size() - 1);
+			if (c == ' ') {
+				continue;
+			} else if (c == '[') {
+				if (i != 0 && pattern.charAt(i - 1) != ' ' && pattern.charAt(i - 1) != '[')
+					return null;
+				final List<Object> group = new ArrayList<Object>();
+				current.add(group);
+				groups.add(group);
+			} else if (c == ']') {
+				if (groups.size() == 1 || i != pattern.length() - 1 && pattern.charAt(i + 1) != ' ' && pattern.charAt(i + 1) != ']')
+					return null;
+				groups.remove(groups.size() - 1);
+			} else if (c == '%') {
+				final int end = pattern.indexOf('%', i + 1);
+				if (end == -1 || numArguments == arguments.size())
+					return null;
+				current.add(Integer.valueOf(numArguments++));
+				i = end;
+				if (i != pattern.length() - 1 && pattern.charAt(i + 1) != ' ' && pattern.charAt(i + 1) != ']')
+					return null;
+			} else {
+				int end = i;
+				while (end < pattern.length() && " []%".indexOf(pattern.charAt(end)) == -1) {
+					if ("()|<>\\".indexOf(pattern.charAt(end)) != -1)
+						return null;
+					end++;
+				}
+				if (end != pattern.length() && pattern.charAt(end) != ' ' && pattern.charAt(end) != ']')
+					return null;
+				current.add("" + pattern.substring(i, end));
+				i = end - 1;
+			}
+		}
+		if (groups.size() != 1 || numArguments != arguments.size())
+			return null;
+		
+		final List<List<Object>> forms = new ArrayList<List<Object>>();
+		forms.add(new ArrayList<Object>());
+		if (!expand(root, forms))
+			return null;
+		final Object[][] fs = new Object[forms.size()][];
+		for (int i = 0; i < fs.length; i++) {
+			final List<Object> form = forms.get(i);
+			for (int j = 0; j < form.size() - 1; j++) {
+				if (form.get(j) instanceof Integer && arguments.get((Integer) form.get(j)).getType() == String.class)
+					return null; // text arguments must be last
+			}
+			fs[i] = form.toArray();
+		}
+		return new ArgumentMatcher(arguments, fs, parsers);
+	}
+	
+	/**
+	 * Appends the given elements to all given forms, creating a copy of each form without and with each optional group, ordered like {@link SkriptParser} tries them.
+	 * 
+	 * @return Whether the pattern has not too many forms
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean expand(final List<Object> elements, final List<List<Object>> forms) {
+		for (final Object e : elements) {
+			if (e instanceof List) {
+				final List<List<Object>> with = new ArrayList<List<Object>>();
+				for (final List<Object> form : forms)
+					with.add(new ArrayList<Object>(form));
+				if (!expand((List<Object>) e, with))
+					return false;
+				// each form with the group is tried before the same form without it
+				final List<List<Object>> merged = new ArrayList<List<Object>>();
+				for (int i = 0; i < forms.size(); i++) {
+					merged.add(with.get(i));
+					merged.add(forms.get(i));
+				}
+				if (merged.size() > MAX_FORMS)
+					return false;
+				forms.clear();
+				forms.addAll(merged);
+			} else {
+				for (final List<Object> form : forms)
+					form.add(e);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Parses the given arguments and sets the command's arguments accordingly if successful.
+	 * 
+	 * @param args The arguments given to the command
+	 * @param event
+	 * @return Whether the arguments could be parsed. If this is false no argument was set and the arguments have to be parsed by
+	 *         {@link SkriptParser#parseArguments(String, ScriptCommand, ScriptCommandEvent)}.
+	 */
+	public boolean parse(final String args, final ScriptCommandEvent event) {
+		if (args.startsWith(" ") || args.endsWith(" ") || args.contains("  "))
+			return false;
+		final String[] words = args.isEmpty() ? new String[0] : args.split(" ");
+		outer: for (final Object[] form : forms) {
+			final boolean rest = form.length > 0 && form[form.length - 1] instanceof Integer && arguments.get((Integer) form[form.length - 1]).getType() == String.class;
+			if (rest ? words.length < form.length : words.length != form.length)
+				continue;
+			for (int i = 0; i < form.length; i++) {
+				if (form[i] instanceof String && !equalsIgnoreCase((String) form[i], words[i]))
+					continue outer;
+			}
+			
+			final Object[] values = new Object[arguments.size()];
+			int start = 0;
+			for (int i = 0; i < form.length; i++) {
+				if (form[i] instanceof Integer) {
+					final int a = (Integer) form[i];
+					final String s = rest && i == form.length - 1 ? "" + args.substring(start) : words[i];
+					final Object value = parse(s, parsers[a]);
+					if (value == null)
+						return false;
+					values[a] = value;
+				}
+				start += words[i].length() + 1;
+			}
+			
+			for (int a = 0; a < values.length; a++) {
+				final Object value = values[a];
+				if (value == null) {
+					arguments.get(a).setToDefault(event);
+				} else {
+					final Object[] array = (Object[]) Array.newInstance(arguments.get(a).getType(), 1); // like SkriptParser.parseArguments
+					array[0] = value;
+					arguments.get(a).set(event, array);
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+	
+	@Nullable
+	private static Object parse(final String s, final Parser<?>[] parsers) {
+		for (final Parser<?> p : parsers) {
+			final Object o = p.parse(s, ParseContext.COMMAND);
+			if (o != null)
+				return o;
+		}
+		return null;
+	}
+	
+	/**
+	 * Compares characters like {@link SkriptParser} does for words in patterns
+	 */
+	private static boolean equalsIgnoreCase(final String word, final String s) {
+		if (word.length() != s.length())
+			return false;
+		for (int i = 0; i < word.length(); i++) {
+			if (Character.toLowerCase(word.charAt(i)) != Character.toLowerCase(s.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+	
+}
@@ -89,6 +89,12 @@ public class ScriptCommand implements CommandExecutor {
 	private final String pattern;
 	private final List<Argument<?>> arguments;
 	
+	/**
+	 * Parses the arguments of simple commands faster than the SkriptParser. Null if the pattern is too complex.
+	 */
+	@Nullable
+	private final ArgumentMatcher argumentMatcher;
+	
 	public final static int PLAYERS = 0x1, CONSOLE = 0x2, BOTH = PLAYERS | CONSOLE;
 	final int executableBy;
 	
@@ -129,6 +135,7 @@ public class ScriptCommand implements CommandExecutor {
 		
 		this.pattern = pattern;
 		this.arguments = arguments;
+		argumentMatcher = ArgumentMatcher.compile(pattern, arguments);
 		
 		trigger = new Trigger(script, "command /" + name, new SimpleEvent(), items);
 		
@@ -199,7 +206,8 @@ public class ScriptCommand implements CommandExecutor {
 		
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			final boolean ok = SkriptParser.parseArguments(rest, ScriptCommand.this, event);
+			final ArgumentMatcher argumentMatcher = this.argumentMatcher;
+			final boolean ok = argumentMatcher != null && argumentMatcher.parse(rest, event) || SkriptParser.parseArguments(rest, ScriptCommand.this, event);
 			if (!ok) {
 				final LogEntry e = log.getError();
 				if (e != null)
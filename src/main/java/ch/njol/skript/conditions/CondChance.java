@@ -29,6 +29,7 @@ import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -45,6 +46,7 @@ import ch.njol.util.Kleenean;
 		"chance of {var}% # {var} between 0 and 100",
 		"chance of {var} # {var} between 0 and 1"})
 @Since("1.0")
+@AsyncSafe
 public class CondChance extends Condition {
 	static {
 		Skript.registerCondition(CondChance.class, "chance of %number%(1¦\\%|)");
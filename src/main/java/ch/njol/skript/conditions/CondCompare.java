@@ -35,12 +35,15 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionList;
+import ch.njol.skript.lang.NumericExpression;
 import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.NumericExpressions;
 import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
@@ -64,6 +67,7 @@ import ch.njol.util.Kleenean;
 		"time in the player's world is greater than 8:00",
 		"the creature is not an enderman or an ender dragon"})
 @Since("1.0")
+@AsyncSafe
 public class CondCompare extends Condition {
 	
 	private final static Patterns<Relation> patterns = new Patterns<>(new Object[][] {
@@ -110,6 +114,10 @@ public class CondCompare extends Condition {
 	@SuppressWarnings("rawtypes")
 	@Nullable
 	Comparator comp;
+	/**
+	 * Whether all compared expressions are single numbers which can be compared without boxing, see {@link NumericExpression}
+	 */
+	private boolean numeric;
 	
 	@SuppressWarnings("null")
 	@Override
@@ -155,9 +163,15 @@ public class CondCompare extends Condition {
 			}
 		}
 		
+		numeric = comp != null && isNumeric(first) && isNumeric(second) && (third == null || isNumeric(third));
+		
 		return true;
 	}
 	
+	private final static boolean isNumeric(final Expression<?> e) {
+		return Number.class.isAssignableFrom(e.getReturnType()) && NumericExpressions.isNumeric(e);
+	}
+	
 	public final static String f(final Expression<?> e) {
 		if (e.getReturnType() == Object.class)
 			return e.toString(null, false);
@@ -257,6 +271,12 @@ public class CondCompare extends Condition {
 	@Override
 	public boolean check(final Event e) {
 		final Expression<?> third = this.third;
+		if (numeric) {
+			if (third == null)
+				return isNegated() ^ relation.is(compareNumeric(first, second, e));
+			return isNegated() ^ (relation == Relation.NOT_EQUAL ^
+					(Relation.GREATER_OR_EQUAL.is(compareNumeric(first, second, e)) && Relation.SMALLER_OR_EQUAL.is(compareNumeric(first, third, e))));
+		}
 		return first.check(e, new Checker<Object>() {
 			@Override
 			public boolean check(final Object o1) {
@@ -279,6 +299,19 @@ public class CondCompare extends Condition {
 		});
 	}
 	
+	/**
+	 * Compares two {@link #isNumeric(Expression) numeric} expressions like the default number comparator, but without boxing their values.
+	 */
+	private final static Relation compareNumeric(final Expression<?> first, final Expression<?> second, final Event e) {
+		final NumericExpression n1 = (NumericExpression) first, n2 = (NumericExpression) second;
+		if (n1.isIntegral() && n2.isIntegral())
+			return Relation.get(Long.compare(n1.getLong(e), n2.getLong(e)));
+		final double diff = n1.getDouble(e) - n2.getDouble(e);
+		if (Math.abs(diff) < Skript.EPSILON)
+			return Relation.EQUAL;
+		return Relation.get(diff);
+	}
+	
 	@Override
 	public String toString(final @Nullable Event e, final boolean debug) {
 		String s;
@@ -23,6 +23,7 @@ package ch.njol.skript.conditions;
 
 import org.bukkit.event.Event;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
@@ -109,11 +110,11 @@ public class CondContains extends Condition {
 					}, isNegated());
 				} else {
 					if (container instanceof Inventory) {
-						final Inventory invi = (Inventory) container;
+						final ItemStack[] contents = ((Inventory) container).getContents();
 						return items.check(e, new Checker<Object>() {
 							@Override
 							public boolean check(final Object type) {
-								return type instanceof ItemType && ((ItemType) type).isContainedIn(invi);
+								return type instanceof ItemType && ((ItemType) type).isContainedIn(contents);
 							}
 						}, isNegated());
 					} else if (container instanceof String) {
@@ -21,11 +21,11 @@
 
 package ch.njol.skript.effects;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.Set;
 import java.util.WeakHashMap;
 
-import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -37,8 +37,10 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.util.Timespan;
+import ch.njol.skript.util.TimingWheel;
 import ch.njol.util.Kleenean;
 
 /**
@@ -76,24 +78,40 @@ public class Delay extends Effect {
 			final Timespan d = duration.getSingle(e);
 			if (d == null)
 				return null;
-			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), new Runnable() {
+			TimingWheel.schedule(new Runnable() {
 				@Override
 				public void run() {
 					if (Skript.debug())
 						Skript.info(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1000000000. + "s");
 					TriggerItem.walk(next, e);
 				}
-			}, d.getTicks_i());
+			}, d.getTicks_i(), getScript());
 		}
 		return null;
 	}
+	
+	/**
+	 * @return The script this delay is in, which is used to cancel its continuations when the script is unloaded
+	 */
+	@Nullable
+	protected final File getScript() {
+		final Trigger t = getTrigger();
+		return t == null ? null : t.getScript();
+	}
 
 	@SuppressWarnings("null")
-	protected final static Set<Event> delayed = Collections.newSetFromMap(new WeakHashMap<Event, Boolean>());
+	protected final static Set<Event> delayed = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Event, Boolean>()));
 
 	public final static boolean isDelayed(final Event e) {
 		return delayed.contains(e);
 	}
+	
+	/**
+	 * Marks an event as delayed, i.e. the rest of the trigger will be run after the event has been processed.
+	 */
+	public final static void addDelayedEvent(final Event e) {
+		delayed.add(e);
+	}
 
 	@Override
 	protected void execute(final Event e) {
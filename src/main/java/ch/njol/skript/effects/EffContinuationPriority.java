@@ -0,0 +1,78 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+
+package ch.njol.skript.effects;
+
+import java.io.File;
+
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.Skript;
+import ch.njol.skript.config.Config;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.events.bukkit.ScriptEvent;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.util.ScriptOptions;
+import ch.njol.util.Kleenean;
+
+@Name("Continuation Priority")
+@Description({"Sets whether the script should be continued before or after other scripts after delays and in periodical events (i.e. 'every ...', but not 'at ...' events) if the <i>continuation tick budget</i> in Skript's config is exceeded.",
+		"This is a script option and thus has to be used in the script's load event."})
+@Examples({"on script load:",
+		"	use high continuation priority"})
+@Since("2.2-dev25")
+public class EffContinuationPriority extends Effect {
+	static {
+		Skript.registerEffect(EffContinuationPriority.class, "use (1¦low|2¦normal|3¦high) continuation priority");
+	}
+	
+	private int priority;
+	
+	@Override
+	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parseResult) {
+		final Config script = ScriptLoader.currentScript;
+		final File f = script == null ? null : script.getFile();
+		if (f == null || !ScriptLoader.isCurrentEvent(ScriptEvent.class) || isDelayed != Kleenean.FALSE) {
+			Skript.error("The continuation priority can only be set in a script's load event, before any delays.");
+			return false;
+		}
+		priority = parseResult.mark - 2;
+		ScriptOptions.getInstance().setContinuationPriority(f, priority);
+		return true;
+	}
+	
+	@Override
+	protected void execute(final Event e) {}
+	
+	@Override
+	public String toString(final @Nullable Event e, final boolean debug) {
+		return "use " + (priority < 0 ? "low" : priority == 0 ? "normal" : "high") + " continuation priority";
+	}
+	
+}
@@ -30,6 +30,8 @@ import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.AsyncSafe;
+import ch.njol.skript.lang.AsyncSection;
 import ch.njol.skript.lang.Conditional;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
@@ -55,6 +57,7 @@ import ch.njol.util.Kleenean;
 		"		exit 2 sections",
 		"	set loop-block to water"})
 @Since("")
+@AsyncSafe
 public class EffExit extends Effect { // TODO [code style] warn user about code after a stop effect
 	static {
 		Skript.registerEffect(EffExit.class,
@@ -117,16 +120,25 @@ public class EffExit extends Effect { // TODO [code style] warn user about code
 	protected TriggerItem walk(final Event e) {
 		debug(e, false);
 		TriggerItem n = this;
+		@Nullable
+		AsyncSection background = null;
 		for (int i = breakLevels; i > 0;) {
 			n = n.getParent();
 			if (n == null) {
 				assert false : this;
 				return null;
 			}
+			if (n instanceof AsyncSection)
+				background = (AsyncSection) n;
+			else if (n instanceof Loop)
+				((Loop) n).exit(e);
 			if (type == EVERYTHING || type == CONDITIONALS && n instanceof Conditional || type == LOOPS && (n instanceof Loop || n instanceof While))
 				i--;
 		}
-		return n instanceof Loop ? ((Loop) n).getActualNext() : n instanceof While ? ((While) n).getActualNext() : n.getNext();
+		final TriggerItem next = n instanceof Loop ? ((Loop) n).getActualNext() : n instanceof While ? ((While) n).getActualNext() : n.getNext();
+		if (background != null && background != n)
+			return background.exit(next); // the items after the background section must be run on the main thread
+		return next;
 	}
 	
 	@Override
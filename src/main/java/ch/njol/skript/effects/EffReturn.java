@@ -32,8 +32,10 @@ import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.Loop;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.lang.TriggerSection;
 import ch.njol.skript.lang.function.FunctionEvent;
 import ch.njol.skript.lang.function.Functions;
 import ch.njol.skript.lang.function.ScriptFunction;
@@ -107,6 +109,10 @@ public class EffReturn extends Effect {
 			((ScriptFunction) function).setReturnValue((FunctionEvent) e, value.getArray(e));
 		else
 			assert false : e;
+		for (TriggerSection s = getParent(); s != null; s = s.getParent()) {
+			if (s instanceof Loop)
+				((Loop) s).exit(e);
+		}
 		return null;
 	}
 	
@@ -0,0 +1,234 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ *
+ */
+
+package ch.njol.skript.effects;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.aliases.ItemTypeMatcher;
+import ch.njol.skript.classes.Changer.ChangeMode;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.util.TimingWheel;
+import ch.njol.util.Kleenean;
+
+@Name("Scan Blocks")
+@Description({"Searches an area for blocks of the given types and stores the found blocks in a list variable.",
+		"Unlike looping all blocks of an area, the blocks are checked in the background on a copy of the affected chunks, so even large areas can be searched without lagging the server. "
+				+ "The trigger is paused like with a <a href='#Delay'>delay</a> until the search has finished, thus the found blocks may already have been changed when the trigger continues.",
+		"Only chunks which are loaded are searched, as loading or generating chunks would lag the server."})
+@Examples({"scan for diamond ore in radius 50 around the player and store them in {_ores::*}",
+		"message \"There are %size of {_ores::*}% diamond ores around you\"",
+		"scan for chests between {corner1} and {corner2} and store the result in {chests::*}"})
+@Since("2.2-dev25")
+public class EffScanBlocks extends Effect {
+	static {
+		Skript.registerEffect(EffScanBlocks.class,
+				"scan [for] %itemtypes% in radius %number% [(of|around) %location%] and store (it|them|the result) in %objects%",
+				"scan [for] %itemtypes% (between|from) %location% (and|to) %location% and store (it|them|the result) in %objects%");
+	}
+	
+	@SuppressWarnings("null")
+	private Expression<ItemType> types;
+	@SuppressWarnings("null")
+	private Expression<?> area1, area2;
+	private boolean sphere;
+	@SuppressWarnings("null")
+	private Variable<?> result;
+	
+	@SuppressWarnings({"unchecked", "null"})
+	@Override
+	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parseResult) {
+		types = (Expression<ItemType>) exprs[0];
+		sphere = matchedPattern == 0;
+		area1 = exprs[sphere ? 2 : 1];
+		area2 = exprs[sphere ? 1 : 2];
+		if (!(exprs[3] instanceof Variable) || exprs[3].isSingle()) {
+			Skript.error("The found blocks can only be stored in a list variable");
+			return false;
+		}
+		result = (Variable<?>) exprs[3];
+		return true;
+	}
+	
+	/**
+	 * The area to scan in block coordinates (inclusive), and optionally a sphere the blocks' centres must be in.
+	 */
+	private final static class Area {
+		final int minX, minY, minZ, maxX, maxY, maxZ;
+		final boolean sphere;
+		final double cx, cy, cz, rSquared;
+		
+		Area(final Location l1, final Location l2) {
+			minX = Math.min(l1.getBlockX(), l2.getBlockX());
+			minY = Math.max(0, Math.min(l1.getBlockY(), l2.getBlockY()));
+			minZ = Math.min(l1.getBlockZ(), l2.getBlockZ());
+			maxX = Math.max(l1.getBlockX(), l2.getBlockX());
+			maxY = Math.min(l1.getWorld().getMaxHeight() - 1, Math.max(l1.getBlockY(), l2.getBlockY()));
+			maxZ = Math.max(l1.getBlockZ(), l2.getBlockZ());
+			sphere = false;
+			cx = cy = cz = rSquared = 0;
+		}
+		
+		Area(final Location center, final double radius) {
+			minX = (int) Math.floor(center.getX() - radius);
+			minY = Math.max(0, (int) Math.floor(center.getY() - radius));
+			minZ = (int) Math.floor(center.getZ() - radius);
+			maxX = (int) Math.floor(center.getX() + radius);
+			maxY = Math.min(center.getWorld().getMaxHeight() - 1, (int) Math.floor(center.getY() + radius));
+			maxZ = (int) Math.floor(center.getZ() + radius);
+			sphere = true;
+			cx = center.getX();
+			cy = center.getY();
+			cz = center.getZ();
+			rSquared = radius * radius * Skript.EPSILON_MULT;
+		}
+		
+		boolean contains(final int x, final int y, final int z) {
+			if (!sphere)
+				return true;
+			final double dx = x + 0.5 - cx, dy = y + 0.5 - cy, dz = z + 0.5 - cz;
+			return dx * dx + dy * dy + dz * dz < rSquared;
+		}
+	}
+	
+	@SuppressWarnings("deprecation")
+	@Override
+	@Nullable
+	protected TriggerItem walk(final Event e) {
+		debug(e, true);
+		final TriggerItem next = getNext();
+		final ItemType[] types = this.types.getArray(e);
+		final Location l1 = (Location) area1.getSingle(e);
+		final Object o2 = area2.getSingle(e);
+		if (types.length == 0 || l1 == null || o2 == null)
+			return next;
+		final World world = l1.getWorld();
+		final Area area;
+		if (sphere) {
+			area = new Area(l1, ((Number) o2).doubleValue());
+		} else {
+			if (((Location) o2).getWorld() != world)
+				return next;
+			area = new Area(l1, (Location) o2);
+		}
+		
+		// whether a block matches is looked up in a table of all block ids and data values to not access the item types from another thread
+		final boolean[] matches = new boolean[(Skript.MAXBLOCKID + 1) << 4];
+		for (final ItemType t : types) {
+			final ItemTypeMatcher m = t.getMatcher();
+			for (int id = 0; id <= Skript.MAXBLOCKID; id++) {
+				final long dataMask = m.getDataMask(id);
+				for (int data = 0; data < 16; data++) {
+					if ((dataMask >>> data & 1) != 0)
+						matches[id << 4 | data] = true;
+				}
+			}
+		}
+		
+		final int minChunkX = area.minX >> 4, minChunkZ = area.minZ >> 4, maxChunkX = area.maxX >> 4, maxChunkZ = area.maxZ >> 4;
+		final List<ChunkSnapshot> snapshots = new ArrayList<ChunkSnapshot>();
+		for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+			for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+				if (world.isChunkLoaded(cx, cz))
+					snapshots.add(world.getChunkAt(cx, cz).getChunkSnapshot());
+			}
+		}
+		final Trigger t = getTrigger();
+		final File script = t == null ? null : t.getScript();
+		
+		if (next != null)
+			Delay.delayed.add(e);
+		Bukkit.getScheduler().runTaskAsynchronously(Skript.getInstance(), new Runnable() {
+			@Override
+			public void run() {
+				int[] found = new int[48];
+				int numFound = 0;
+				for (final ChunkSnapshot s : snapshots) {
+					final int baseX = s.getX() << 4, baseZ = s.getZ() << 4;
+					for (int x = Math.max(area.minX, baseX); x <= Math.min(area.maxX, baseX + 15); x++) {
+						for (int z = Math.max(area.minZ, baseZ); z <= Math.min(area.maxZ, baseZ + 15); z++) {
+							for (int y = area.minY; y <= area.maxY; y++) {
+								final int id = s.getBlockTypeId(x - baseX, y, z - baseZ);
+								if (id > Skript.MAXBLOCKID || !matches[id << 4 | s.getBlockData(x - baseX, y, z - baseZ)] || !area.contains(x, y, z))
+									continue;
+								if (numFound == found.length) {
+									final int[] f = new int[found.length * 2];
+									System.arraycopy(found, 0, f, 0, numFound);
+									found = f;
+								}
+								found[numFound++] = x;
+								found[numFound++] = y;
+								found[numFound++] = z;
+							}
+						}
+					}
+				}
+				final int[] coords = found;
+				final int numCoords = numFound;
+				TimingWheel.schedule(new Runnable() {
+					@Override
+					public void run() {
+						final Block[] blocks = new Block[numCoords / 3];
+						for (int i = 0; i < blocks.length; i++)
+							blocks[i] = world.getBlockAt(coords[3 * i], coords[3 * i + 1], coords[3 * i + 2]);
+						result.change(e, blocks, ChangeMode.SET);
+						if (next != null)
+							TriggerItem.walk(next, e);
+					}
+				}, 0, script);
+			}
+		});
+		return null;
+	}
+	
+	@Override
+	protected void execute(final Event e) {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public String toString(final @Nullable Event e, final boolean debug) {
+		return "scan for " + types.toString(e, debug) + (sphere ? " in radius " + area2.toString(e, debug) + " around " + area1.toString(e, debug) : " between " + area1.toString(e, debug) + " and " + area2.toString(e, debug))
+				+ " and store them in " + result.toString(e, debug);
+	}
+	
+}
@@ -23,13 +23,13 @@ package ch.njol.skript.effects;
 
 import static ch.njol.skript.effects.Delay.*;
 
-import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.util.Timespan;
+import ch.njol.skript.util.TimingWheel;
 
 /**
  * @author Peter Güttinger
@@ -47,14 +47,14 @@ public class IndeterminateDelay extends Delay {
 			final Timespan d = duration.getSingle(e);
 			if (d == null)
 				return null;
-			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), new Runnable() {
+			TimingWheel.schedule(new Runnable() {
 				@Override
 				public void run() {
 					if (Skript.debug())
 						Skript.info(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1000000000. + "s");
 					TriggerItem.walk(next, e);
 				}
-			}, d.getTicks_i());
+			}, d.getTicks_i(), getScript());
 		}
 		return null;
 	}
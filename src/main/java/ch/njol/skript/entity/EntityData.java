@@ -484,14 +484,11 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		final List<E> list = new ArrayList<E>();
 		if (worlds == null)
 			worlds = Bukkit.getWorlds().toArray(new World[0]);
+		final EntityTypeMatcher matcher = new EntityTypeMatcher(types);
 		for (final World w : worlds) {
 			for (final E e : w.getEntitiesByClass(type)) {
-				for (final EntityData<?> t : types) {
-					if (t.isInstance(e)) {
-						list.add(e);
-						break;
-					}
-				}
+				if (matcher.matches(e))
+					list.add(e);
 			}
 		}
 		return list.toArray((E[]) Array.newInstance(type, list.size()));
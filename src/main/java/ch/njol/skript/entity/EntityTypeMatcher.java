@@ -0,0 +1,96 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.entity;
+
+import java.util.Arrays;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Checks whether entities match any of a set of {@link EntityData}s. The entity datas that can possibly match an entity of a given {@link EntityType} are determined once
+ * per entity type, so each entity is only checked against these.
+ * <p>
+ * Instances are not thread-safe unless they are created as {@link #EntityTypeMatcher(EntityData[], boolean) shared}.
+ */
+public final class EntityTypeMatcher {
+	
+	private final static EntityType[] entityTypes = EntityType.values();
+	
+	private final EntityData<?>[] types;
+	
+	/**
+	 * The entity datas that can match entities of an entity type, by the type's ordinal. Filled lazily.
+	 */
+	private final EntityData<?>[][] candidates = new EntityData<?>[entityTypes.length][];
+	
+	public EntityTypeMatcher(final EntityData<?>[] types) {
+		this.types = types;
+	}
+	
+	/**
+	 * @param types
+	 * @param shared Whether this matcher will be reused, possibly by several threads, e.g. for a literal list of entity types. If true the entity datas that can match
+	 *            each entity type are determined immediately instead of lazily, which makes this matcher thread-safe.
+	 */
+	public EntityTypeMatcher(final EntityData<?>[] types, final boolean shared) {
+		this.types = types;
+		if (shared) {
+			for (final EntityType t : entityTypes)
+				getCandidates(t);
+		}
+	}
+	
+	private EntityData<?>[] getCandidates(final EntityType t) {
+		EntityData<?>[] c = candidates[t.ordinal()];
+		if (c != null)
+			return c;
+		final Class<? extends Entity> entityClass = t.getEntityClass();
+		if (entityClass == null) {
+			c = types;
+		} else {
+			int num = 0;
+			final EntityData<?>[] cs = new EntityData<?>[types.length];
+			for (final EntityData<?> d : types) {
+				// entity datas of subtypes might still match, e.g. if a type is Entity.class
+				if (d.getType().isAssignableFrom(entityClass) || entityClass.isAssignableFrom(d.getType()))
+					cs[num++] = d;
+			}
+			c = num == cs.length ? cs : Arrays.copyOf(cs, num);
+		}
+		candidates[t.ordinal()] = c;
+		return c;
+	}
+	
+	public boolean matches(final @Nullable Entity e) {
+		if (e == null)
+			return false;
+		final EntityType t = e.getType();
+		for (final EntityData<?> d : t == null ? types : getCandidates(t)) {
+			if (d.isInstance(e))
+				return true;
+		}
+		return false;
+	}
+	
+}
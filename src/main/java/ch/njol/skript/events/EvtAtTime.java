@@ -41,6 +41,7 @@ import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.util.Time;
+import ch.njol.skript.util.TimingWheel;
 import ch.njol.util.Math2;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -93,12 +94,13 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 		return true;
 	}
 	
-	private static int taskID = -1;
+	@Nullable
+	private static TimingWheel.Entry task = null;
 	
 	private static void registerListener() {
-		if (taskID != -1)
+		if (task != null)
 			return;
-		taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+		task = TimingWheel.scheduleRepeating(new Runnable() {
 			@SuppressWarnings("null")
 			@Override
 			public void run() {
@@ -131,7 +133,7 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 					i.lastTick = tick;
 				}
 			}
-		}, 0, CHECKPERIOD);
+		}, 0, CHECKPERIOD, null);
 	}
 	
 	void execute(final World w) {
@@ -142,7 +144,7 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 		}
 		final ScheduledEvent e = new ScheduledEvent(w);
 		SkriptEventHandler.logEventStart(e);
-		SkriptEventHandler.logTriggerEnd(t);
+		SkriptEventHandler.logTriggerStart(t);
 		t.execute(e);
 		SkriptEventHandler.logTriggerEnd(t);
 		SkriptEventHandler.logEventEnd();
@@ -182,10 +184,11 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 	
 	@Override
 	public void unregisterAll() {
-		if (taskID != -1)
-			Bukkit.getScheduler().cancelTask(taskID);
+		final TimingWheel.Entry task = EvtAtTime.task;
+		if (task != null)
+			task.cancel();
 		t = null;
-		taskID = -1;
+		EvtAtTime.task = null;
 		triggers.clear();
 	}
 	
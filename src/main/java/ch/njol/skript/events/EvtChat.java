@@ -23,7 +23,7 @@ package ch.njol.skript.events;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
@@ -41,7 +41,6 @@ import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SelfRegisteringSkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Trigger;
-import ch.njol.skript.util.Task;
 
 /**
  * @author Peter Güttinger
@@ -55,7 +54,10 @@ public class EvtChat extends SelfRegisteringSkriptEvent {
 				.since("1.4.1");
 	}
 	
-	final static Collection<Trigger> triggers = new ArrayList<>();
+	/**
+	 * Copied on write as it is iterated by asynchronous chat events
+	 */
+	final static Collection<Trigger> triggers = new CopyOnWriteArrayList<>();
 	
 	private static boolean registeredExecutor = false;
 	private final static EventExecutor executor = new EventExecutor() {
@@ -80,14 +82,9 @@ public class EvtChat extends SelfRegisteringSkriptEvent {
 					execute(e);
 					return;
 				}
-				Task.callSync(new Callable<Void>() {
-					@Override
-					@Nullable
-					public Void call() throws Exception {
-						execute(e);
-						return null;
-					}
-				});
+				SkriptEventHandler.logEventStart(e);
+				SkriptEventHandler.executeAsync(e, new ArrayList<>(triggers), false);
+				SkriptEventHandler.logEventEnd();
 			}
 		}
 	};
@@ -21,16 +21,16 @@
 
 package ch.njol.skript.events;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map.Entry;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
 import org.bukkit.event.Listener;
@@ -43,11 +43,14 @@ import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.SkriptEventHandler;
 import ch.njol.skript.aliases.ItemData;
 import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.aliases.ItemTypeMatcher;
+import ch.njol.skript.events.util.PlayerMoveEventHandler;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SelfRegisteringSkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.registrations.Classes;
+import ch.njol.util.coll.CollectionUtils;
 
 /**
  * @author Peter Güttinger
@@ -91,12 +94,43 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 	}
 	
 //	private final static HashMap<BlockLocation, List<Trigger>> blockTriggers = new HashMap<BlockLocation, List<Trigger>>();
-	final static HashMap<Integer, List<Trigger>> itemTypeTriggers = new HashMap<>();
+	/**
+	 * The triggers per block id, and for each of these triggers the block data values it applies to as a bitmask (block data is always between 0 and 15).
+	 */
+	final static Trigger[][] idTriggers = new Trigger[Skript.MAXBLOCKID + 1][];
+	final static int[][] idDataMasks = new int[Skript.MAXBLOCKID + 1][];
+	static int numTriggers = 0;
 	@SuppressWarnings("null")
 	ItemType[] types = null;
 //	private World world;
 //	private int x, y, z;
 	
+	/**
+	 * The block a player was standing on at the last check
+	 */
+	private final static class StandingBlock {
+		World world;
+		int x, y, z, id;
+		
+		StandingBlock(final World world, final int x, final int y, final int z, final int id) {
+			set(world, x, y, z, id);
+		}
+		
+		void set(final World world, final int x, final int y, final int z, final int id) {
+			this.world = world;
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.id = id;
+		}
+		
+		boolean is(final World world, final int x, final int y, final int z, final int id) {
+			return this.x == x && this.y == y && this.z == z && this.id == id && this.world == world;
+		}
+	}
+	
+	private final static Map<Player, StandingBlock> standingBlocks = new WeakHashMap<>();
+	
 	private static boolean registeredExecutor = false;
 	private final static EventExecutor executor = new EventExecutor() {
 		@SuppressWarnings("null")
@@ -116,37 +150,56 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 //					}
 //				}
 //			}
-			if (!itemTypeTriggers.isEmpty()) {
-				final int id = getOnBlock(to);
-				if (id == 0)
-					return;
-				final List<Trigger> ts = itemTypeTriggers.get(id);
-				if (ts == null)
+			if (numTriggers == 0)
+				return;
+			if (!PlayerMoveEventHandler.changedStandingBlock(e)) {
+				PlayerMoveEventHandler.filtered(e);
+				return;
+			}
+			final World w = to.getWorld();
+			final int id = getOnBlock(to), x = to.getBlockX(), y = getBlockY(to.getY(), id), z = to.getBlockZ();
+			final Player p = e.getPlayer();
+			final StandingBlock last = standingBlocks.get(p);
+			if (last == null) {
+				final int fromId = getOnBlock(from);
+				standingBlocks.put(p, new StandingBlock(w, x, y, z, id));
+				if (from.getWorld() == w && from.getBlockX() == x && from.getBlockZ() == z && getBlockY(from.getY(), fromId) == y && fromId == id) {
+					PlayerMoveEventHandler.filtered(e);
 					return;
-				final int y = getBlockY(to.getY(), id);
-				if (to.getWorld().equals(from.getWorld()) && to.getBlockX() == from.getBlockX() && to.getBlockZ() == from.getBlockZ() && y == getBlockY(from.getY(), getOnBlock(from)) && getOnBlock(from) == id)
+				}
+			} else {
+				if (last.is(w, x, y, z, id)) {
+					PlayerMoveEventHandler.filtered(e);
 					return;
-				SkriptEventHandler.logEventStart(e);
-				final byte data = to.getWorld().getBlockAt(to.getBlockX(), y, to.getBlockZ()).getData();
-				triggersLoop: for (final Trigger t : ts) {
-					final EvtMoveOn se = (EvtMoveOn) t.getEvent();
-					for (final ItemType i : se.types) {
-						if (i.isOfType(id, data)) {
-							SkriptEventHandler.logTriggerStart(t);
-							t.execute(e);
-							SkriptEventHandler.logTriggerEnd(t);
-							continue triggersLoop;
-						}
-					}
 				}
-				SkriptEventHandler.logEventEnd();
+				last.set(w, x, y, z, id);
 			}
+			final Trigger[] ts = idTriggers[id];
+			if (id == 0 || ts == null) {
+				PlayerMoveEventHandler.filtered(e);
+				return;
+			}
+			PlayerMoveEventHandler.dispatched(e);
+			SkriptEventHandler.logEventStart(e);
+			final int data = 1 << w.getBlockAt(x, y, z).getData();
+			final int[] masks = idDataMasks[id];
+			for (int i = 0; i < ts.length; i++) {
+				if ((masks[i] & data) != 0) {
+					final Trigger t = ts[i];
+					SkriptEventHandler.logTriggerStart(t);
+					t.execute(e);
+					SkriptEventHandler.logTriggerEnd(t);
+				}
+			}
+			SkriptEventHandler.logEventEnd();
+			if (e.isCancelled()) // the player stays where they were
+				standingBlocks.remove(p);
 		}
 	};
 	
 	final static int getOnBlock(final Location l) {
 		int id = l.getWorld().getBlockTypeIdAt(l.getBlockX(), (int) Math.ceil(l.getY()) - 1, l.getBlockZ());
-		if (id == 0 && Math.abs((l.getY() - l.getBlockY()) - 0.5) < Skript.EPSILON) { // fences
+		if (id == 0 && PlayerMoveEventHandler.isOnHalfBlock(l.getY())) { // fences
 			id = l.getWorld().getBlockTypeIdAt(l.getBlockX(), l.getBlockY() - 1, l.getBlockZ());
 			if (id != Material.FENCE.getId() && id != 107 && id != 113) // fence gate // nether fence
 				return 0;
@@ -155,7 +208,7 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 	}
 	
 	final static int getBlockY(final double y, final int id) {
-		if ((id == Material.FENCE.getId() || id == 107 || id == 113) && Math.abs((y - Math.floor(y)) - 0.5) < Skript.EPSILON) // fence gate // nether fence
+		if ((id == Material.FENCE.getId() || id == 107 || id == 113) && PlayerMoveEventHandler.isOnHalfBlock(y)) // fence gate // nether fence
 			return (int) Math.floor(y) - 1;
 		return (int) Math.ceil(y) - 1;
 	}
@@ -209,6 +262,24 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 //		return "walk on " + (types != null ? Skript.toString(types, false) : "<block:" + world.getName() + ":" + x + "," + y + "," + z + ">");
 	}
 	
+	private final static void addTrigger(final int id, final Trigger trigger, final int dataMask) {
+		final Trigger[] ts = idTriggers[id];
+		if (ts == null) {
+			idTriggers[id] = new Trigger[] {trigger};
+			idDataMasks[id] = new int[] {dataMask};
+			return;
+		}
+		final int i = CollectionUtils.indexOf(ts, trigger);
+		if (i != -1) {
+			idDataMasks[id][i] |= dataMask;
+			return;
+		}
+		idTriggers[id] = Arrays.copyOf(ts, ts.length + 1);
+		idTriggers[id][ts.length] = trigger;
+		idDataMasks[id] = Arrays.copyOf(idDataMasks[id], ts.length + 1);
+		idDataMasks[id][ts.length] = dataMask;
+	}
+	
 	@Override
 	public void register(final Trigger trigger) {
 //		if (types == null) {
@@ -219,15 +290,14 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 //			ts.add(trigger);
 //		} else {
 		for (final ItemType t : types) {
-			for (final ItemData d : t) {
-				if (d.getId() > Skript.MAXBLOCKID)
-					continue;
-				List<Trigger> ts = itemTypeTriggers.get(d.getId());
-				if (ts == null)
-					itemTypeTriggers.put(d.getId(), ts = new ArrayList<>());
-				ts.add(trigger);
+			final ItemTypeMatcher m = t.getMatcher();
+			for (int id = m.getMinId(); id <= Math.min(m.getMaxId(), Skript.MAXBLOCKID); id++) {
+				final int dataMask = (int) m.getDataMask(id) & 0xFFFF;
+				if (dataMask != 0)
+					addTrigger(id, trigger, dataMask);
 			}
 		}
+		numTriggers++;
 //		}
 		if (!registeredExecutor) {
 			Bukkit.getPluginManager().registerEvent(PlayerMoveEvent.class, new Listener() {}, SkriptConfig.defaultEventPriority.value(), executor, Skript.getInstance(), true);
@@ -244,19 +314,38 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 //			if (ts.isEmpty())
 //				i.remove();
 //		}
-		final Iterator<Entry<Integer, List<Trigger>>> i2 = itemTypeTriggers.entrySet().iterator();
-		while (i2.hasNext()) {
-			final List<Trigger> ts = i2.next().getValue();
-			ts.remove(t);
-			if (ts.isEmpty())
-				i2.remove();
+		for (int id = 0; id < idTriggers.length; id++) {
+			final Trigger[] ts = idTriggers[id];
+			if (ts == null)
+				continue;
+			final int i = CollectionUtils.indexOf(ts, t);
+			if (i == -1)
+				continue;
+			if (ts.length == 1) {
+				idTriggers[id] = null;
+				idDataMasks[id] = null;
+			} else {
+				final Trigger[] newTs = new Trigger[ts.length - 1];
+				final int[] masks = idDataMasks[id], newMasks = new int[ts.length - 1];
+				System.arraycopy(ts, 0, newTs, 0, i);
+				System.arraycopy(ts, i + 1, newTs, i, newTs.length - i);
+				System.arraycopy(masks, 0, newMasks, 0, i);
+				System.arraycopy(masks, i + 1, newMasks, i, newMasks.length - i);
+				idTriggers[id] = newTs;
+				idDataMasks[id] = newMasks;
+			}
 		}
+		numTriggers--;
 	}
 	
 	@Override
 	public void unregisterAll() {
 //		blockTriggers.clear();
-		itemTypeTriggers.clear();
+		Arrays.fill(idTriggers, null);
+		Arrays.fill(idDataMasks, null);
+		numTriggers = 0;
+		standingBlocks.clear();
+		PlayerMoveEventHandler.stopCounting();
 	}
 	
 }
@@ -0,0 +1,159 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.events.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+
+/**
+ * Shared checks of move based events (e.g. walking on blocks or entering regions), which allow to filter out the vast majority of move events, i.e. head rotations and
+ * moves within a block, before doing any world or region lookups.
+ * <p>
+ * Also counts how many move events have been filtered out and how many have been dispatched to triggers during the last tick. Each event is only counted once, even if
+ * it is checked by several move based events, and counted as dispatched if any of them dispatched it.
+ */
+public abstract class PlayerMoveEventHandler {
+	
+	private PlayerMoveEventHandler() {}
+	
+	/**
+	 * @return Whether the player's feet are in another block after the event than before
+	 */
+	public final static boolean changedBlock(final PlayerMoveEvent e) {
+		final Location from = e.getFrom(), to = e.getTo();
+		if (to == null)
+			return false;
+		return from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() || from.getBlockZ() != to.getBlockZ() || from.getWorld() != to.getWorld();
+	}
+	
+	/**
+	 * @return Whether the player may be standing on another block after the event than before, i.e. whether they crossed a block boundary, stepped onto or off a
+	 *         block's top or onto or off a fence.
+	 */
+	public final static boolean changedStandingBlock(final PlayerMoveEvent e) {
+		final Location from = e.getFrom(), to = e.getTo();
+		if (to == null)
+			return false;
+		return from.getBlockX() != to.getBlockX() || Math.ceil(from.getY()) != Math.ceil(to.getY()) || from.getBlockZ() != to.getBlockZ()
+				|| isOnHalfBlock(from.getY()) != isOnHalfBlock(to.getY()) || from.getWorld() != to.getWorld();
+	}
+	
+	/**
+	 * @return Whether the given height is in the middle of a block, i.e. on top of a fence
+	 */
+	public final static boolean isOnHalfBlock(final double y) {
+		return Math.abs((y - Math.floor(y)) - 0.5) < Skript.EPSILON;
+	}
+	
+	private static int filtered = 0, dispatched = 0;
+	private static volatile int lastFiltered = 0, lastDispatched = 0;
+	
+	/**
+	 * The event that was counted last, and whether it was counted as dispatched
+	 */
+	@Nullable
+	private static PlayerMoveEvent countedEvent = null;
+	private static boolean countedDispatched = false;
+	
+	/**
+	 * The ID of the task that moves the counts of each tick into {@link #lastFiltered} and {@link #lastDispatched}, or -1 if it is not running. The task stops itself after
+	 * a tick without any move events, i.e. when no move based events are registered anymore.
+	 */
+	private static int taskID = -1;
+	
+	private final static void count(final PlayerMoveEvent e, final boolean dispatch) {
+		if (e == countedEvent) {
+			if (dispatch && !countedDispatched) {
+				filtered--;
+				dispatched++;
+				countedDispatched = true;
+			}
+			return;
+		}
+		countedEvent = e;
+		countedDispatched = dispatch;
+		if (dispatch)
+			dispatched++;
+		else
+			filtered++;
+		if (taskID == -1) {
+			taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+				@Override
+				public void run() {
+					lastFiltered = filtered;
+					lastDispatched = dispatched;
+					if (filtered == 0 && dispatched == 0)
+						stopCounting();
+					filtered = dispatched = 0;
+					countedEvent = null;
+				}
+			}, 1, 1);
+		}
+	}
+	
+	/**
+	 * Stops the task that counts the move events of each tick. Should be called when move based events are unregistered, counting is restarted with the next move event
+	 * that is counted.
+	 */
+	public final static void stopCounting() {
+		if (taskID != -1) {
+			Bukkit.getScheduler().cancelTask(taskID);
+			taskID = -1;
+		}
+		filtered = dispatched = 0;
+		lastFiltered = lastDispatched = 0;
+		countedEvent = null;
+	}
+	
+	/**
+	 * Must be called by move based events for each move event that didn't cause any triggers to be checked.
+	 */
+	public final static void filtered(final PlayerMoveEvent e) {
+		count(e, false);
+	}
+	
+	/**
+	 * Must be called by move based events for each move event that was passed to triggers.
+	 */
+	public final static void dispatched(final PlayerMoveEvent e) {
+		count(e, true);
+	}
+	
+	/**
+	 * @return The number of move events that have been filtered out during the last tick
+	 */
+	public final static int getFilteredLastTick() {
+		return lastFiltered;
+	}
+	
+	/**
+	 * @return The number of move events that have been dispatched to triggers during the last tick
+	 */
+	public final static int getDispatchedLastTick() {
+		return lastDispatched;
+	}
+	
+}
@@ -21,8 +21,6 @@
 
 package ch.njol.skript.expressions;
 
-import java.lang.reflect.Array;
-
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -31,10 +29,13 @@ import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
+import ch.njol.skript.lang.NumericExpression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.NumericExpressions;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.util.Patterns;
@@ -50,56 +51,65 @@ import ch.njol.util.Kleenean;
 		"	message \"Two useless numbers: %loop-num*2 - 5%, %2^loop-num - 1%\"",
 		"message \"You have %health of player * 2% half hearts of HP!\""})
 @Since("1.4.2")
-public class ExprArithmetic extends SimpleExpression<Number> {
+@AsyncSafe
+public class ExprArithmetic extends SimpleExpression<Number> implements NumericExpression {
 	
 	private static enum Operator {
 		PLUS('+') {
-			@SuppressWarnings("null")
 			@Override
-			public Number calculate(final Number n1, final Number n2, final boolean integer) {
-				if (integer)
-					return Long.valueOf(n1.longValue() + n2.longValue());
-				return Double.valueOf(n1.doubleValue() + n2.doubleValue());
+			public long calculate(final long n1, final long n2) {
+				return n1 + n2;
+			}
+			
+			@Override
+			public double calculate(final double n1, final double n2) {
+				return n1 + n2;
 			}
 		},
 		MINUS('-') {
-			@SuppressWarnings("null")
 			@Override
-			public Number calculate(final Number n1, final Number n2, final boolean integer) {
-				if (integer)
-					return Long.valueOf(n1.longValue() - n2.longValue());
-				return Double.valueOf(n1.doubleValue() - n2.doubleValue());
+			public long calculate(final long n1, final long n2) {
+				return n1 - n2;
+			}
+			
+			@Override
+			public double calculate(final double n1, final double n2) {
+				return n1 - n2;
 			}
 		},
 		MULT('*') {
-			@SuppressWarnings("null")
 			@Override
-			public Number calculate(final Number n1, final Number n2, final boolean integer) {
-				if (integer)
-					return Long.valueOf(n1.longValue() * n2.longValue());
-				return Double.valueOf(n1.doubleValue() * n2.doubleValue());
+			public long calculate(final long n1, final long n2) {
+				return n1 * n2;
+			}
+			
+			@Override
+			public double calculate(final double n1, final double n2) {
+				return n1 * n2;
 			}
 		},
 		DIV('/') {
-			@SuppressWarnings("null")
 			@Override
-			public Number calculate(final Number n1, final Number n2, final boolean integer) {
-				if (integer) {
-					final long div = n2.longValue();
-					if (div == 0)
-						return Long.MAX_VALUE;
-					return Long.valueOf(n1.longValue() / div);
-				}
-				return Double.valueOf(n1.doubleValue() / n2.doubleValue());
+			public long calculate(final long n1, final long n2) {
+				if (n2 == 0)
+					return Long.MAX_VALUE;
+				return n1 / n2;
+			}
+			
+			@Override
+			public double calculate(final double n1, final double n2) {
+				return n1 / n2;
 			}
 		},
 		EXP('^') {
-			@SuppressWarnings("null")
 			@Override
-			public Number calculate(final Number n1, final Number n2, final boolean integer) {
-				if (integer)
-					return Long.valueOf((long) Math.pow(n1.longValue(), n2.longValue()));
-				return Double.valueOf(Math.pow(n1.doubleValue(), n2.doubleValue()));
+			public long calculate(final long n1, final long n2) {
+				return (long) Math.pow(n1, n2);
+			}
+			
+			@Override
+			public double calculate(final double n1, final double n2) {
+				return Math.pow(n1, n2);
 			}
 		};
 		
@@ -109,7 +119,9 @@ public class ExprArithmetic extends SimpleExpression<Number> {
 			this.sign = sign;
 		}
 		
-		public abstract Number calculate(Number n1, Number n2, boolean integer);
+		public abstract long calculate(long n1, long n2);
+		
+		public abstract double calculate(double n1, double n2);
 		
 		@Override
 		public String toString() {
@@ -148,36 +160,46 @@ public class ExprArithmetic extends SimpleExpression<Number> {
 		first = (Expression<? extends Number>) exprs[0];
 		second = (Expression<? extends Number>) exprs[1];
 		op = patterns.getInfo(matchedPattern);
-		if (op == Operator.DIV || op == Operator.EXP) {
+		if (op != Operator.DIV && op != Operator.EXP && NumericExpressions.isIntegral(first) && NumericExpressions.isIntegral(second))
+			returnType = Long.class;
+		else
 			returnType = Double.class;
-		} else {
-			final Class<?> f = first.getReturnType(), s = second.getReturnType();
-			final Class<?>[] integers = {Long.class, Integer.class, Short.class, Byte.class};
-			boolean firstIsInt = false, secondIsInt = false;
-			for (final Class<?> i : integers) {
-				firstIsInt |= i.isAssignableFrom(f);
-				secondIsInt |= i.isAssignableFrom(s);
-			}
-			if (firstIsInt && secondIsInt)
-				returnType = Long.class;
-			else
-				returnType = Double.class;
-		}
 		integer = returnType == Long.class;
 		return true;
 	}
 	
-	@SuppressWarnings("null")
 	@Override
 	protected Number[] get(final Event e) {
-		final Number[] one = (Number[]) Array.newInstance(returnType, 1);
-		Number n1 = first.getSingle(e), n2 = second.getSingle(e);
-		if (n1 == null)
-			n1 = Integer.valueOf(0);
-		if (n2 == null)
-			n2 = Integer.valueOf(0);
-		one[0] = op.calculate(n1, n2, integer);
-		return one;
+		if (integer)
+			return new Long[] {getLong(e)};
+		return new Double[] {getDouble(e)};
+	}
+	
+	/**
+	 * Always true, as missing operands are treated as 0.
+	 */
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+	
+	@Override
+	public boolean isIntegral() {
+		return integer;
+	}
+	
+	@Override
+	public long getLong(final Event e) {
+		if (!integer)
+			return (long) getDouble(e);
+		return op.calculate(NumericExpressions.getLong(first, e), NumericExpressions.getLong(second, e));
+	}
+	
+	@Override
+	public double getDouble(final Event e) {
+		if (integer)
+			return getLong(e);
+		return op.calculate(NumericExpressions.getDouble(first, e), NumericExpressions.getDouble(second, e));
 	}
 	
 	@Override
@@ -35,6 +35,7 @@ import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -52,6 +53,7 @@ import ch.njol.util.coll.CollectionUtils;
 @Description("Recipients of chat events where this is called.")
 @Examples("chat recipients")
 @Since("2.2 (unknown)")
+@AsyncSafe
 public class ExprChatRecipients extends SimpleExpression<Player> {
 
 	static {
@@ -23,9 +23,12 @@ package ch.njol.skript.expressions;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -37,11 +40,13 @@ import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.EntityTypeMatcher;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
@@ -91,6 +96,12 @@ public class ExprEntities extends SimpleExpression<Entity> {
 	
 	Class<? extends Entity> returnType = Entity.class;
 	
+	/**
+	 * The matcher for {@link #types} if they are a literal, otherwise a matcher is created whenever this expression is iterated
+	 */
+	@Nullable
+	private EntityTypeMatcher literalMatcher;
+	
 	private int matchedPattern;
 	
 	@SuppressWarnings({"unchecked", "null"})
@@ -120,6 +131,8 @@ public class ExprEntities extends SimpleExpression<Entity> {
 		if (types instanceof Literal && ((Literal<EntityData<?>>) types).getAll().length == 1) {
 			returnType = ((Literal<EntityData<?>>) types).getSingle().getType();
 		}
+		if (types instanceof Literal)
+			literalMatcher = new EntityTypeMatcher(((Literal<EntityData<?>>) types).getAll(), true);
 		return true;
 	}
 	
@@ -145,10 +158,41 @@ public class ExprEntities extends SimpleExpression<Entity> {
 				l.add(iter.next());
 			return l.toArray((Entity[]) Array.newInstance(returnType, l.size()));
 		} else {
-			return EntityData.getAll(types.getAll(e), returnType, worlds != null ? worlds.getArray(e) : null);
+			final EntityData<?>[] ts = types.getAll(e);
+			final World[] ws = worlds != null ? worlds.getArray(e) : null;
+			if (!SkriptConfig.cacheEntityLookups.value() || !Bukkit.isPrimaryThread())
+				return EntityData.getAll(ts, returnType, ws);
+			final List<Object> key = Arrays.<Object>asList(returnType, Arrays.asList(ts), ws == null ? null : Arrays.asList(ws));
+			final Entity[] cached = tickCache.get(key);
+			if (cached == null) {
+				if (tickCache.isEmpty())
+					Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), clearTickCache);
+				final Entity[] r = EntityData.getAll(ts, returnType, ws);
+				tickCache.put(key, r);
+				return r.clone();
+			}
+			// entities may have died or been removed since they have been cached
+			final List<Entity> r = new ArrayList<>(cached.length);
+			for (final Entity en : cached) {
+				if (en.isValid())
+					r.add(en);
+			}
+			return r.toArray((Entity[]) Array.newInstance(returnType, r.size()));
 		}
 	}
 	
+	/**
+	 * Results of lookups in worlds during the current tick if {@link SkriptConfig#cacheEntityLookups} is enabled, by return type, entity datas and worlds.
+	 */
+	private final static Map<List<Object>, Entity[]> tickCache = new HashMap<>();
+	
+	private final static Runnable clearTickCache = new Runnable() {
+		@Override
+		public void run() {
+			tickCache.clear();
+		}
+	};
+	
 	@SuppressWarnings("unchecked")
 	@Override
 	public boolean isLoopOf(final String s) {
@@ -195,28 +239,27 @@ public class ExprEntities extends SimpleExpression<Entity> {
 			final double d = n.doubleValue();
 			final Collection<Entity> es = l.getWorld().getNearbyEntities(l, d, d, d);
 			final double radiusSquared = d * d * Skript.EPSILON_MULT;
-			final EntityData<?>[] ts = types.getAll(e);
+			final EntityTypeMatcher matcher = getMatcher(e);
+			final Location entityLocation = new Location(null, 0, 0, 0); // reused to not allocate a location per entity
 			return new CheckedIterator<>(es.iterator(), new NullableChecker<Entity>() {
 				@Override
 				public boolean check(final @Nullable Entity e) {
-					if (e == null || e.getLocation().distanceSquared(l) > radiusSquared)
+					if (e == null)
 						return false;
-					for (final EntityData<?> t : ts) {
-						if (t.isInstance(e))
-							return true;
-					}
-					return false;
+					final Location el = e.getLocation(entityLocation);
+					final double dx = el.getX() - l.getX(), dy = el.getY() - l.getY(), dz = el.getZ() - l.getZ();
+					return dx * dx + dy * dy + dz * dz <= radiusSquared && matcher.matches(e);
 				}
 			});
 		} else {
-			if (worlds == null && returnType == Player.class)
+			if (worlds == null && returnType == Player.class || SkriptConfig.cacheEntityLookups.value() && Bukkit.isPrimaryThread())
 				return super.iterator(e);
 			return new NonNullIterator<Entity>() {
 				
 				private final World[] ws = worlds == null ? Bukkit.getWorlds().toArray(new World[0]) : worlds.getArray(e);
 				private int w = -1;
 				
-				private final EntityData<?>[] ts = types.getAll(e);
+				private final EntityTypeMatcher matcher = getMatcher(e);
 				
 				@Nullable
 				private Iterator<? extends Entity> curIter = null;
@@ -233,10 +276,8 @@ public class ExprEntities extends SimpleExpression<Entity> {
 						}
 						while (curIter.hasNext()) {
 							final Entity current = curIter.next();
-							for (final EntityData<?> t : ts) {
-								if (t.isInstance(current))
-									return current;
-							}
+							if (matcher.matches(current))
+								return current;
 						}
 					}
 				}
@@ -244,6 +285,11 @@ public class ExprEntities extends SimpleExpression<Entity> {
 		}
 	}
 	
+	EntityTypeMatcher getMatcher(final Event e) {
+		final EntityTypeMatcher m = literalMatcher;
+		return m != null ? m : new EntityTypeMatcher(types.getAll(e));
+	}
+	
 	@SuppressWarnings("null")
 	@Override
 	public String toString(final @Nullable Event e, final boolean debug) {
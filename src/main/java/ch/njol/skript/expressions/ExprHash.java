@@ -34,6 +34,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.expressions.base.PropertyExpression;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -56,6 +57,7 @@ import ch.njol.util.Kleenean;
 		"		else:",
 		"			message \"wrong password!\""})
 @Since("2.0")
+@AsyncSafe
 public class ExprHash extends PropertyExpression<String, String> {
 	static {
 		Skript.registerExpression(ExprHash.class, String.class, ExpressionType.PROPERTY, "[md5]( |-)hash(ed|[( |-|)code] of) %strings%");
@@ -90,8 +92,10 @@ public class ExprHash extends PropertyExpression<String, String> {
 	protected String[] get(final Event e, final String[] source) {
 		assert md5 != null;
 		final String[] r = new String[source.length];
-		for (int i = 0; i < r.length; i++)
-			r[i] = toHex(md5.digest(source[i].getBytes(UTF_8)));
+		synchronized (md5) { // MessageDigest is not thread-safe
+			for (int i = 0; i < r.length; i++)
+				r[i] = toHex(md5.digest(source[i].getBytes(UTF_8)));
+		}
 		return r;
 	}
 	
@@ -40,6 +40,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Loop;
+import ch.njol.skript.lang.NumericExpression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.ConvertedExpression;
@@ -69,7 +70,7 @@ import ch.njol.util.Kleenean;
 		"	loop blocks from the loop-block to the block 10 north of the loop-block:",
 		"		set loop-block-2 to any wool"})
 @Since("1.0")
-public class ExprLoopValue extends SimpleExpression<Object> {
+public class ExprLoopValue extends SimpleExpression<Object> implements NumericExpression {
 	static {
 		Skript.registerExpression(ExprLoopValue.class, Object.class, ExpressionType.SIMPLE, "[the] loop-<.+>");
 	}
@@ -84,6 +85,8 @@ public class ExprLoopValue extends SimpleExpression<Object> {
 	boolean isVariableLoop = false;
 	// if this loops a variable and isIndex is true, return the index of the variable instead of the value
 	boolean isIndex = false;
+	// whether this loops a range of numbers, and can thus be evaluated as a primitive number
+	boolean isNumberLoop = false;
 	
 	@Override
 	public boolean init(final Expression<?>[] vars, final int matchedPattern, final Kleenean isDelayed, final ParseResult parser) {
@@ -125,6 +128,7 @@ public class ExprLoopValue extends SimpleExpression<Object> {
 			if (((Variable<?>) loop.getLoopedExpression()).isIndexLoop(s))
 				isIndex = true;
 		}
+		isNumberLoop = loop.getLoopedExpression() instanceof ExprNumbers;
 		this.loop = loop;
 		return true;
 	}
@@ -177,6 +181,28 @@ public class ExprLoopValue extends SimpleExpression<Object> {
 		return one;
 	}
 	
+	@Override
+	public boolean isNumeric() {
+		return isNumberLoop;
+	}
+	
+	@Override
+	public boolean isIntegral() {
+		return isNumberLoop && getReturnType() == Long.class;
+	}
+	
+	@Override
+	public long getLong(final Event e) {
+		final Object current = loop.getCurrent(e);
+		return current instanceof Number ? ((Number) current).longValue() : 0;
+	}
+	
+	@Override
+	public double getDouble(final Event e) {
+		final Object current = loop.getCurrent(e);
+		return current instanceof Number ? ((Number) current).doubleValue() : 0;
+	}
+	
 	@Override
 	public String toString(final @Nullable Event e, final boolean debug) {
 		if (e == null)
@@ -40,6 +40,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.events.util.PlayerChatEventHandler;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -71,6 +72,7 @@ import ch.njol.util.coll.CollectionUtils;
 		"	set the death message to \"%player% died!\""})
 @Since("1.4.6 (chat message), 1.4.9 (join & quit messages), 2.0 (death message)")
 @Events({"chat", "join", "quit", "death"})
+@AsyncSafe
 public class ExprMessage extends SimpleExpression<String> {
 	
 	@SuppressWarnings("unchecked")
@@ -35,6 +35,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.NumericExpressions;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.util.Kleenean;
@@ -70,53 +71,90 @@ public class ExprNumbers extends SimpleExpression<Number> {
 		return true;
 	}
 	
+	/**
+	 * @return The given bound, or NaN if it has no value
+	 */
+	private final static double getBound(final Expression<Number> bound, final Event e) {
+		if (NumericExpressions.isNumeric(bound))
+			return NumericExpressions.getDouble(bound, e);
+		final Number n = bound.getSingle(e);
+		return n == null ? Double.NaN : n.doubleValue();
+	}
+	
 	@Override
 	@Nullable
 	protected Number[] get(final Event e) {
-		final Number s = start.getSingle(e), f = end.getSingle(e);
-		if (s == null || f == null || s.doubleValue() > f.doubleValue())
+		final RangeIterator iter = iterator(e);
+		if (iter == null)
 			return null;
-		final Number[] array = integer ? new Long[(int) (Math.floor(f.doubleValue()) - Math.ceil(s.doubleValue()) + 1)] : new Double[(int) Math.floor(f.doubleValue() - s.doubleValue() + 1)];
-		final double low = integer ? Math.ceil(s.doubleValue()) : s.doubleValue();
-		for (int i = 0; i < array.length; i++) {
-			if (integer)
-				array[i] = Long.valueOf((long) low + i);
-			else
-				array[i] = Double.valueOf(low + i);
-		}
+		final Number[] array = integer ? new Long[iter.size()] : new Double[iter.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = iter.next();
 		return array;
 	}
 	
+	/**
+	 * Loops lazily through the range, which should be preferred over {@link #getArray(Event)} for large ranges.
+	 */
 	@Override
 	@Nullable
-	public Iterator<Number> iterator(final Event e) {
-		final Number s = start.getSingle(e), f = end.getSingle(e);
-		if (s == null || f == null || s.doubleValue() > f.doubleValue())
+	public RangeIterator iterator(final Event e) {
+		final double s = getBound(start, e), f = getBound(end, e);
+		if (Double.isNaN(s) || Double.isNaN(f) || s > f)
 			return null;
-		return new Iterator<Number>() {
-			double i = integer ? Math.ceil(s.doubleValue()) : s.doubleValue(), max = integer ? Math.floor(f.doubleValue()) : f.doubleValue();
-			
-			@Override
-			public boolean hasNext() {
-				return i <= max;
-			}
-			
-			@SuppressWarnings("null")
-			@Override
-			public Number next() {
-				if (!hasNext())
-					throw new NoSuchElementException();
-				if (integer)
-					return Long.valueOf((long) i++);
-				else
-					return Double.valueOf(i++);
-			}
-			
-			@Override
-			public void remove() {
-				throw new UnsupportedOperationException();
-			}
-		};
+		return new RangeIterator(s, f, integer);
+	}
+	
+	/**
+	 * Iterates a range of numbers without creating any objects except for the returned values.
+	 */
+	public final static class RangeIterator implements Iterator<Number> {
+		
+		private final boolean integer;
+		
+		// integer ranges use longs to stay exact for large values
+		private long nextLong;
+		private final long maxLong;
+		private double nextDouble;
+		private final double maxDouble;
+		
+		RangeIterator(final double start, final double end, final boolean integer) {
+			this.integer = integer;
+			nextLong = (long) Math.ceil(start);
+			maxLong = (long) Math.floor(end);
+			nextDouble = start;
+			maxDouble = end;
+		}
+		
+		/**
+		 * @return The number of remaining values
+		 */
+		int size() {
+			if (integer)
+				return (int) (maxLong - nextLong + 1);
+			return (int) Math.floor(maxDouble - nextDouble + 1);
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return integer ? nextLong <= maxLong : nextDouble <= maxDouble;
+		}
+		
+		@SuppressWarnings("null")
+		@Override
+		public Number next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			if (integer)
+				return Long.valueOf(nextLong++);
+			return Double.valueOf(nextDouble++);
+		}
+		
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+		
 	}
 	
 	@Override
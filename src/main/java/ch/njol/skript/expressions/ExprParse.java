@@ -22,6 +22,8 @@
 package ch.njol.skript.expressions;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
@@ -46,8 +48,11 @@ import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.log.LogEntry;
 import ch.njol.skript.log.ParseLogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.Utils;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
+import ch.njol.util.coll.CollectionUtils;
 
 /**
  * @author Peter Güttinger
@@ -93,6 +98,22 @@ public class ExprParse extends SimpleExpression<Object> {
 	@Nullable
 	private ClassInfo<?> c;
 	
+	/**
+	 * The pattern compiled into a {@link SimplePattern}, or null if the pattern is not simple enough
+	 */
+	@Nullable
+	private SimplePattern simplePattern;
+	
+	/**
+	 * Whether {@link #c}'s parser never logs anything, thus does not have to be called with a log handler
+	 */
+	private boolean quietParser;
+	
+	/**
+	 * Types whose parsers never log anything
+	 */
+	final static Class<?>[] quietTypes = {String.class, Number.class, Long.class, Integer.class, Short.class, Byte.class, Double.class, Float.class, Boolean.class};
+	
 	@SuppressWarnings({"unchecked", "null"})
 	@Override
 	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parseResult) {
@@ -123,6 +144,7 @@ public class ExprParse extends SimpleExpression<Object> {
 				return false;
 			this.pattern = p.getFirst();
 			plurals = p.getSecond();
+			simplePattern = SimplePattern.compile(p.getFirst(), p.getSecond());
 		} else {
 			c = ((Literal<ClassInfo<?>>) exprs[1]).getSingle();
 			final Parser<?> p = c.getParser();
@@ -130,6 +152,7 @@ public class ExprParse extends SimpleExpression<Object> {
 				Skript.error("Text cannot be parsed as " + c.getName().withIndefiniteArticle(), ErrorQuality.SEMANTIC_ERROR);
 				return false;
 			}
+			quietParser = CollectionUtils.contains(quietTypes, c.getC());
 		}
 		return true;
 	}
@@ -141,6 +164,26 @@ public class ExprParse extends SimpleExpression<Object> {
 		final String t = text.getSingle(e);
 		if (t == null)
 			return null;
+		
+		// fast paths which do not need a log handler if parsing succeeds
+		final ClassInfo<?> c = this.c;
+		if (c != null && quietParser) {
+			final Parser<?> p = c.getParser();
+			assert p != null;
+			final Object o = p.parse(t, ParseContext.COMMAND);
+			if (o != null) {
+				final Object[] one = (Object[]) Array.newInstance(c.getC(), 1);
+				one[0] = o;
+				return one;
+			}
+		}
+		final SimplePattern simplePattern = this.simplePattern;
+		if (simplePattern != null) {
+			final Object[] os = simplePattern.match(t);
+			if (os != null)
+				return os;
+		}
+		
 		final ParseLogHandler h = SkriptLogger.startParseLogHandler();
 		try {
 			if (c != null) {
@@ -172,6 +215,191 @@ public class ExprParse extends SimpleExpression<Object> {
 		}
 	}
 	
+	/**
+	 * A pattern consisting only of words and single expressions of types with {@link ExprParse#quietTypes quiet parsers}, separated by spaces, where optional parts have to
+	 * consist of whole words and expressions. Such a pattern is matched against text split into words, parsing the expressions with the parsers
+	 * {@link Classes#parseSimple(String, Class, ParseContext)} would use.
+	 * <p>
+	 * If the text does not match, this class gives up and the text has to be parsed with {@link SkriptParser#parse(String, String)}, which also tries converters and
+	 * creates an error message.
+	 */
+	final static class SimplePattern {
+		
+		/**
+		 * Maximum number of forms a pattern may expand to
+		 */
+		private final static int MAX_FORMS = 16;
+		
+		/**
+		 * Each form is an array of words (Strings) and expression indices (Integers), in the order {@link SkriptParser} tries them
+		 */
+		private final Object[][] forms;
+		
+		/**
+		 * The parsers to try for each expression, in the order of {@link Classes#parseSimple(String, Class, ParseContext)}
+		 */
+		private final Parser<?>[][] parsers;
+		
+		private SimplePattern(final Object[][] forms, final Parser<?>[][] parsers) {
+			this.forms = forms;
+			this.parsers = parsers;
+		}
+		
+		/**
+		 * @param pattern A pattern as returned by {@link SkriptParser#validatePattern(String)}
+		 * @param plurals Which expressions of the pattern are plural
+		 * @return The compiled pattern or null if the pattern is not simple enough
+		 */
+		@SuppressWarnings("unchecked")
+		@Nullable
+		static SimplePattern compile(final String pattern, final boolean[] plurals) {
+			final List<Parser<?>[]> parsers = new ArrayList<Parser<?>[]>();
+			final List<Object> root = new ArrayList<Object>();
+			final List<List<Object>> groups = new ArrayList<List<Object>>();
+			groups.add(root);
+			for (int i = 0; i < pattern.length(); i++) {
+				final char ch = pattern.charAt(i);
+				final List<Object> current = groups.get(groups.size() - 1);
+				if (ch == ' ') {
+					continue;
+				} else if (ch == '[') {
+					if (i != 0 && pattern.charAt(i - 1) != ' ' && pattern.charAt(i - 1) != '[')
+						return null;
+					final List<Object> group = new ArrayList<Object>();
+					current.add(group);
+					groups.add(group);
+				} else if (ch == ']') {
+					if (groups.size() == 1 || i != pattern.length() - 1 && pattern.charAt(i + 1) != ' ' && pattern.charAt(i + 1) != ']')
+						return null;
+					groups.remove(groups.size() - 1);
+				} else if (ch == '%') {
+					final int end = pattern.indexOf('%', i + 1);
+					if (end == -1 || parsers.size() == plurals.length || plurals[parsers.size()])
+						return null;
+					final ClassInfo<?> ci = Classes.getClassInfoNoError(Utils.getEnglishPlural("" + pattern.substring(i + 1, end)).getFirst());
+					if (ci == null)
+						return null;
+					final List<Parser<?>> ps = new ArrayList<Parser<?>>();
+					for (final ClassInfo<?> info : Classes.getClassInfos()) {
+						final Parser<?> p = info.getParser();
+						if (p == null || !p.canParse(ParseContext.COMMAND) || !ci.getC().isAssignableFrom(info.getC()))
+							continue;
+						if (!CollectionUtils.contains(quietTypes, info.getC()))
+							return null;
+						ps.add(p);
+					}
+					current.add(Integer.valueOf(parsers.size()));
+					parsers.add(ps.toArray(new Parser<?>[ps.size()]));
+					i = end;
+					if (i != pattern.length() - 1 && pattern.charAt(i + 1) != ' ' && pattern.charAt(i + 1) != ']')
+						return null;
+				} else {
+					int end = i;
+					while (end < pattern.length() && " []%".indexOf(pattern.charAt(end)) == -1) {
+						if ("()|<>\\".indexOf(pattern.charAt(end)) != -1)
+							return null;
+						end++;
+					}
+					if (end != pattern.length() && pattern.charAt(end) != ' ' && pattern.charAt(end) != ']')
+						return null;
+					current.add("" + pattern.substring(i, end));
+					i = end - 1;
+				}
+			}
+			if (groups.size() != 1 || parsers.size() != plurals.length)
+				return null;
+			
+			final List<List<Object>> forms = new ArrayList<List<Object>>();
+			forms.add(new ArrayList<Object>());
+			if (!expand(root, forms))
+				return null;
+			final Object[][] fs = new Object[forms.size()][];
+			for (int i = 0; i < fs.length; i++)
+				fs[i] = forms.get(i).toArray();
+			return new SimplePattern(fs, parsers.toArray(new Parser<?>[parsers.size()][]));
+		}
+		
+		/**
+		 * Appends the given elements to all given forms, creating a copy of each form with and without each optional group.
+		 * 
+		 * @return Whether the pattern has not too many forms
+		 */
+		@SuppressWarnings("unchecked")
+		private static boolean expand(final List<Object> elements, final List<List<Object>> forms) {
+			for (final Object e : elements) {
+				if (e instanceof List) {
+					final List<List<Object>> with = new ArrayList<List<Object>>();
+					for (final List<Object> form : forms)
+						with.add(new ArrayList<Object>(form));
+					if (!expand((List<Object>) e, with))
+						return false;
+					// each form with the group is tried before the same form without it
+					final List<List<Object>> merged = new ArrayList<List<Object>>();
+					for (int i = 0; i < forms.size(); i++) {
+						merged.add(with.get(i));
+						merged.add(forms.get(i));
+					}
+					if (merged.size() > MAX_FORMS)
+						return false;
+					forms.clear();
+					forms.addAll(merged);
+				} else {
+					for (final List<Object> form : forms)
+						form.add(e);
+				}
+			}
+			return true;
+		}
+		
+		/**
+		 * @param text The text to parse
+		 * @return The parsed values of the pattern's expressions, or null if the text does not match the pattern or an expression could not be parsed
+		 */
+		@Nullable
+		Object[] match(final String text) {
+			if (text.isEmpty() || text.startsWith(" ") || text.endsWith(" ") || text.contains("  "))
+				return null;
+			final String[] words = text.split(" ");
+			final int[] starts = new int[words.length + 1];
+			for (int i = 0; i < words.length; i++)
+				starts[i + 1] = starts[i] + words[i].length() + 1;
+			for (final Object[] form : forms) {
+				final Object[] values = new Object[parsers.length];
+				if (match(text, words, starts, form, 0, 0, values))
+					return values;
+			}
+			return null;
+		}
+		
+		private boolean match(final String text, final String[] words, final int[] starts, final Object[] form, final int f, final int w, final Object[] values) {
+			if (f == form.length)
+				return w == words.length;
+			if (form[f] instanceof String)
+				return w < words.length && ((String) form[f]).equalsIgnoreCase(words[w]) && match(text, words, starts, form, f + 1, w + 1, values);
+			final int e = (Integer) form[f];
+			for (int end = w + 1; end <= words.length; end++) {
+				final Object value = parse("" + text.substring(starts[w], starts[end] - 1), parsers[e]);
+				if (value != null) {
+					values[e] = value;
+					if (match(text, words, starts, form, f + 1, end, values))
+						return true;
+				}
+			}
+			return false;
+		}
+		
+		@Nullable
+		private static Object parse(final String s, final Parser<?>[] parsers) {
+			for (final Parser<?> p : parsers) {
+				final Object o = p.parse(s, ParseContext.COMMAND);
+				if (o != null)
+					return o;
+			}
+			return null;
+		}
+		
+	}
+	
 	@Override
 	public boolean isSingle() {
 		return pattern == null;
@@ -0,0 +1,101 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.expressions;
+
+import java.util.Locale;
+
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.AsyncSafe;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.Kleenean;
+import ch.njol.util.StringUtils;
+
+@Name("Rank")
+@Description({"The rank of an element of a list variable, where the element with the highest value has rank 1 and elements with the same value share a rank. Elements which are not numbers have no rank.",
+		"This is fast even for huge lists if the list is listed in the 'indexed list variables' option in the config."})
+@Examples({"set {_rank} to the rank of uuid of player in {kills::*}",
+		"message \"You are ranked %rank of name of player in {points::*}%!\""})
+@Since("2.2-dev25")
+@AsyncSafe
+public class ExprRank extends SimpleExpression<Integer> {
+	static {
+		Skript.registerExpression(ExprRank.class, Integer.class, ExpressionType.COMBINED, "[the] rank of %string% in %objects%");
+	}
+	
+	@SuppressWarnings("null")
+	private Expression<String> index;
+	@SuppressWarnings("null")
+	private Variable<?> list;
+	
+	@SuppressWarnings({"unchecked", "null"})
+	@Override
+	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parseResult) {
+		if (!(exprs[1] instanceof Variable) || !((Variable<?>) exprs[1]).isList()) {
+			Skript.error("The rank of an element can only be found in a list variable, e.g. {points::*}");
+			return false;
+		}
+		index = (Expression<String>) exprs[0];
+		list = (Variable<?>) exprs[1];
+		return true;
+	}
+	
+	@Override
+	@Nullable
+	protected Integer[] get(final Event e) {
+		final String i = index.getSingle(e);
+		if (i == null)
+			return new Integer[0];
+		final String name = StringUtils.substring(list.getName(e), 0, -(Variable.SEPARATOR.length() + 1));
+		final int rank = Variables.getRank(name, i.toLowerCase(Locale.ENGLISH), e, list.isLocal());
+		if (rank == -1)
+			return new Integer[0];
+		return new Integer[] {rank};
+	}
+	
+	@Override
+	public boolean isSingle() {
+		return true;
+	}
+	
+	@Override
+	public Class<? extends Integer> getReturnType() {
+		return Integer.class;
+	}
+	
+	@Override
+	public String toString(final @Nullable Event e, final boolean debug) {
+		return "rank of " + index.toString(e, debug) + " in " + list.toString(e, debug);
+	}
+	
+}
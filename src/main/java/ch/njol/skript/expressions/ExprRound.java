@@ -31,9 +31,12 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.expressions.base.PropertyExpression;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.NumericExpression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.NumericExpressions;
 import ch.njol.util.Kleenean;
 import ch.njol.util.Math2;
 
@@ -47,7 +50,8 @@ import ch.njol.util.Math2;
 		"set {_x} to floor({_y}) - ceil({_x})",
 		"add rounded down argument to the player's health"})
 @Since("2.0")
-public class ExprRound extends PropertyExpression<Number, Long> {
+@AsyncSafe
+public class ExprRound extends PropertyExpression<Number, Long> implements NumericExpression {
 	static {
 		Skript.registerExpression(ExprRound.class, Long.class, ExpressionType.PROPERTY,
 				"(a|the|) round[ed] down %number%",
@@ -75,11 +79,38 @@ public class ExprRound extends PropertyExpression<Number, Long> {
 					return Long.valueOf(n.longValue());
 				else if (n instanceof Long)
 					return (Long) n;
-				return Long.valueOf(action == -1 ? Math2.floor(n.doubleValue()) : action == 0 ? Math2.round(n.doubleValue()) : Math2.ceil(n.doubleValue()));
+				return Long.valueOf(round(n.doubleValue()));
 			}
 		});
 	}
 	
+	long round(final double d) {
+		return action == -1 ? Math2.floor(d) : action == 0 ? Math2.round(d) : Math2.ceil(d);
+	}
+	
+	@Override
+	public boolean isNumeric() {
+		return NumericExpressions.isNumeric(getExpr());
+	}
+	
+	@Override
+	public boolean isIntegral() {
+		return true;
+	}
+	
+	@Override
+	public long getLong(final Event e) {
+		final Expression<? extends Number> expr = getExpr();
+		if (NumericExpressions.isIntegral(expr))
+			return NumericExpressions.getLong(expr, e);
+		return round(NumericExpressions.getDouble(expr, e));
+	}
+	
+	@Override
+	public double getDouble(final Event e) {
+		return getLong(e);
+	}
+	
 	@Override
 	public Class<? extends Long> getReturnType() {
 		return Long.class;
@@ -21,58 +21,105 @@
 
 package ch.njol.skript.expressions;
 
-import java.util.Arrays;
-
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.classes.Comparator;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.registrations.Comparators;
+import ch.njol.skript.util.Sorter;
+import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
+import ch.njol.util.StringUtils;
 
 @Name("Sorted List")
-@Description("Sorts given list in natural order. All objects in list must be comparable; usually if you think you can compare it, it can be compared.")
-@Examples({"set {_list::*} to  sorted {_list::*"})
-@Since("2.2-dev19")
+@Description({"Sorts given list in natural order. All objects in list must be comparable; usually if you think you can compare it, it can be compared.",
+		"A list can also be sorted by another list of the same size, e.g. a list of player names by a list of their scores, and the top or lowest few elements can be chosen without sorting the whole list.",
+		"Global list variables of numbers which are listed in the 'indexed list variables' option in the config do not have to be sorted at all."})
+@Examples({"set {_list::*} to sorted {_list::*}",
+		"set {_names::*} to sorted {names::*} by {scores::*} in descending order",
+		"set {_best::*} to the top 10 of {names::*} by {scores::*}"})
+@Since("2.2-dev19, 2.2-dev25 (by, descending order, top/lowest)")
+@AsyncSafe
 public class ExprSortedList extends SimpleExpression<Object> {
 	
 	static{
-		Skript.registerExpression(ExprSortedList.class, Object.class, ExpressionType.COMBINED, "sorted %objects%");
+		Skript.registerExpression(ExprSortedList.class, Object.class, ExpressionType.COMBINED,
+				"sorted %objects% [by %-objects%] [in (ascending|1¦descending) order]",
+				"[the] (1¦top|1¦highest|lowest) %number% [(of|in)] %objects% [by %-objects%]");
 	}
 	
 	@SuppressWarnings("null")
 	private Expression<Object> list;
+	@Nullable
+	private Expression<Object> keys;
+	@Nullable
+	private Expression<Number> amount;
+	private boolean descending;
 	
 	@SuppressWarnings({"null", "unchecked"})
 	@Override
 	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
-		Class<? extends Object> type = exprs[0].getReturnType();
-		if (Comparable.class.isAssignableFrom(type)) {
-			Skript.error("List of type " + Classes.toString(type) + " does not support sorting.");
+		if (matchedPattern == 1)
+			amount = (Expression<Number>) exprs[0];
+		list = (Expression<Object>) exprs[matchedPattern];
+		keys = (Expression<Object>) exprs[matchedPattern + 1];
+		descending = parseResult.mark == 1;
+		final Expression<?> sortedBy = keys != null ? keys : list;
+		if (!isSortable(sortedBy.getReturnType())) {
+			Skript.error("List of type " + Classes.toString(sortedBy.getReturnType()) + " does not support sorting.");
 			return false;
 		}
-		list = (Expression<Object>) exprs[0];
 		return true;
 	}
 	
+	private static boolean isSortable(final Class<?> type) {
+		if (type == Object.class || Comparable.class.isAssignableFrom(type))
+			return true;
+		final Comparator<?, ?> c = Comparators.getComparator(type, type);
+		return c != null && c.supportsOrdering();
+	}
+	
 	@Override
 	@Nullable
 	protected Object[] get(Event e) {
-		Object[] sorted = list.getAll(e).clone(); // Not yet sorted
+		final Expression<Number> amount = this.amount;
+		final int n;
+		if (amount != null) {
+			final Number a = amount.getSingle(e);
+			if (a == null)
+				return new Object[0];
+			n = a.intValue();
+		} else {
+			n = Integer.MAX_VALUE;
+		}
+		final Expression<Object> keys = this.keys;
+		if (keys == null && list instanceof Variable && ((Variable<?>) list).isList() && !((Variable<?>) list).isLocal()) {
+			final Object[] top = Variables.getTop(StringUtils.substring(((Variable<?>) list).getName(e), 0, -(Variable.SEPARATOR.length() + 1)), n, descending);
+			if (top != null)
+				return top;
+		}
+		final Object[] values = list.getAll(e);
+		final Object[] sortBy = keys == null ? null : keys.getAll(e);
 		try {
-			Arrays.sort(sorted); // Now sorted
+			if (amount == null)
+				return Sorter.sort(values, sortBy, descending);
+			return Sorter.top(values, sortBy, n, descending);
 		} catch (IllegalArgumentException ex) { // In case elements are not comparable
-			Skript.error("Tried to sort a list, but some objects are not comparable!");
+			Skript.error("Tried to sort a list, but " + ex.getMessage());
+			return values;
 		}
-		return sorted;
 	}
 	
 	@Override
@@ -87,7 +134,10 @@ public class ExprSortedList extends SimpleExpression<Object> {
 
 	@Override
 	public String toString(@Nullable Event e, boolean debug) {
-		return "sorted list";
+		final Expression<Number> amount = this.amount;
+		final Expression<Object> keys = this.keys;
+		return (amount == null ? "sorted " : (descending ? "the top " : "the lowest ") + amount.toString(e, debug) + " of ") + list.toString(e, debug)
+				+ (keys == null ? "" : " by " + keys.toString(e, debug)) + (amount == null && descending ? " in descending order" : "");
 	}
 	
-}
\ No newline at end of file
+}
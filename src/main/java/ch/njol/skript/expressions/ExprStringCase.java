@@ -33,6 +33,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.expressions.base.PropertyExpression;
+import ch.njol.skript.lang.AsyncSafe;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
@@ -47,6 +48,7 @@ import ch.njol.util.Kleenean;
 @Description("Copy of given text in upper or lower case.")
 @Examples("\"oops!\" in upper case # OOPS!")
 @Since("2.2-dev16")
+@AsyncSafe
 public class ExprStringCase extends SimpleExpression<String> {
 
 	private final static int UPPER = 0, LOWER = 1;
@@ -23,10 +23,13 @@ package ch.njol.skript.hooks.regions.events;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
@@ -39,6 +42,7 @@ import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.events.util.PlayerMoveEventHandler;
 import ch.njol.skript.hooks.regions.RegionsPlugin;
 import ch.njol.skript.hooks.regions.classes.Region;
 import ch.njol.skript.lang.Literal;
@@ -111,6 +115,8 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 	@Override
 	public void unregisterAll() {
 		triggers.clear();
+		playerRegions.clear();
+		PlayerMoveEventHandler.stopCounting();
 	}
 	
 	private boolean applies(final Event e) {
@@ -141,6 +147,32 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 		me.setCancelled(e.isCancelled());
 	}
 	
+	/**
+	 * The regions a player was in when last checked, and the block they were at.
+	 */
+	private final static class PlayerRegions {
+		final World world;
+		final int x, y, z;
+		final Set<? extends Region> regions;
+		
+		PlayerRegions(final Location l, final Set<? extends Region> regions) {
+			world = l.getWorld();
+			x = l.getBlockX();
+			y = l.getBlockY();
+			z = l.getBlockZ();
+			this.regions = regions;
+		}
+		
+		boolean isAt(final Location l) {
+			return l.getBlockX() == x && l.getBlockY() == y && l.getBlockZ() == z && l.getWorld() == world;
+		}
+	}
+	
+	/**
+	 * Regions are only checked if a player crosses a block boundary, and the regions the player entered or left are determined from the regions they were in at the last check.
+	 */
+	private final static Map<Player, PlayerRegions> playerRegions = new WeakHashMap<>();
+	
 	// even WorldGuard doesn't have events, and this way all region plugins are supported for sure.
 	private final static EventExecutor ee = new EventExecutor() {
 		@Nullable
@@ -152,13 +184,26 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 			if (event == last)
 				return;
 			last = event;
+			if (triggers.isEmpty())
+				return;
 			final PlayerMoveEvent e = (PlayerMoveEvent) event;
 			final Location to = e.getTo(), from = e.getFrom();
-			if (to != null && to.equals(from))
+			if (to == null)
+				return;
+			if (!PlayerMoveEventHandler.changedBlock(e)) {
+				PlayerMoveEventHandler.filtered(e);
 				return;
-			//if (to.getWorld().equals(from.getWorld()) && to.distanceSquared(from) < 2)
-			//	return;
-			final Set<? extends Region> oldRs = RegionsPlugin.getRegionsAt(from), newRs = RegionsPlugin.getRegionsAt(to);
+			}
+			final Player p = e.getPlayer();
+			PlayerRegions old = playerRegions.get(p);
+			if (old != null && old.isAt(to)) {
+				PlayerMoveEventHandler.filtered(e);
+				return;
+			}
+			PlayerMoveEventHandler.dispatched(e);
+			if (old == null || !old.isAt(from))
+				old = new PlayerRegions(from, RegionsPlugin.getRegionsAt(from));
+			final Set<? extends Region> oldRs = old.regions, newRs = RegionsPlugin.getRegionsAt(to);
 			for (final Region r : oldRs) {
 				if (!newRs.contains(r))
 					callEvent(r, e, false);
@@ -167,6 +212,7 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 				if (!oldRs.contains(r))
 					callEvent(r, e, true);
 			}
+			playerRegions.put(p, e.isCancelled() ? old : new PlayerRegions(to, newRs));
 		}
 	};
 	
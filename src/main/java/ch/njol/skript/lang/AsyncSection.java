@@ -0,0 +1,252 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+
+package ch.njol.skript.lang;
+
+import java.io.File;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.Skript;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.effects.Delay;
+import ch.njol.skript.util.TimingWheel;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.Closeable;
+
+/**
+ * A trigger section whose items are run on a background thread, after which the rest of the trigger is continued on Bukkit's main thread like after a delay. Only
+ * {@link AsyncSafe} syntax elements may be used in the section, see {@link ScriptLoader#isInBackground()}.
+ * <p>
+ * The section works on a copy of the event's local variables. Local variables changed in the section are set in the event's local variables when the trigger continues, while
+ * local variables changed by other triggers of the event in the meantime keep their values.
+ * <p>
+ * Exiting the section with {@link ch.njol.skript.effects.EffExit exit/stop} continues the trigger after the exited sections on the main thread, or not at all if the whole
+ * trigger is stopped.
+ */
+public class AsyncSection extends TriggerSection {
+	
+	private final static LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+	private final static ThreadPoolExecutor pool = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, queue, new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(final @Nullable Runnable r) {
+			assert r != null;
+			final Thread t = Skript.newThread(r, "Skript background worker #" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	});
+	static {
+		pool.allowCoreThreadTimeOut(true);
+		Skript.closeOnDisable(new Closeable() {
+			@Override
+			public void close() {
+				pool.shutdownNow();
+			}
+		});
+	}
+	
+	private static volatile int maxQueueSize = 1000;
+	
+	/**
+	 * @param size The number of threads which run background sections
+	 */
+	public static void setPoolSize(final int size) {
+		assert size > 0;
+		if (size > pool.getMaximumPoolSize()) {
+			pool.setMaximumPoolSize(size);
+			pool.setCorePoolSize(size);
+		} else {
+			pool.setCorePoolSize(size);
+			pool.setMaximumPoolSize(size);
+		}
+	}
+	
+	/**
+	 * @param size The maximum number of background sections which may wait for a thread. Further sections are run on the main thread instead.
+	 */
+	public static void setMaxQueueSize(final int size) {
+		assert size >= 0;
+		maxQueueSize = size;
+	}
+	
+	public static int getPoolSize() {
+		return pool.getMaximumPoolSize();
+	}
+	
+	/**
+	 * @return The number of background sections that are currently running
+	 */
+	public static int getActiveCount() {
+		return pool.getActiveCount();
+	}
+	
+	/**
+	 * @return The number of background sections waiting for a thread
+	 */
+	public static int getQueueSize() {
+		return queue.size();
+	}
+	
+	/**
+	 * The item the trigger continues with after this section has been walked on the current thread, null if the trigger has been stopped, or {@link #NOT_FINISHED} while the
+	 * section is running.
+	 */
+	private final static ThreadLocal<Object> continuation = new ThreadLocal<>();
+	private final static Object NOT_FINISHED = new Object();
+	
+	/**
+	 * The item after the section's last item and the section's {@link #getNext() next item}, which ends the walk through the section's items, as the rest of the trigger has to
+	 * be run on the main thread.
+	 */
+	private final TriggerItem end = new TriggerItem(this) {
+		@Override
+		@Nullable
+		protected TriggerItem walk(final Event e) {
+			continuation.set(actualNext);
+			return null;
+		}
+		
+		@Override
+		protected boolean run(final Event e) {
+			assert false;
+			return false;
+		}
+		
+		@Override
+		public String toString(final @Nullable Event e, final boolean debug) {
+			return "end of background section";
+		}
+	};
+	
+	public AsyncSection(final SectionNode node) {
+		super(node);
+		super.setNext(end);
+	}
+	
+	/**
+	 * Called by {@link ch.njol.skript.effects.EffExit} when exiting this section and at least one of the sections it is in.
+	 * 
+	 * @param next The item to continue the trigger with on the main thread, or null to stop the trigger
+	 * @return null to end the walk through this section's items
+	 */
+	@Nullable
+	public TriggerItem exit(final @Nullable TriggerItem next) {
+		continuation.set(next);
+		return null;
+	}
+	
+	/**
+	 * Walks through this section's items on the current thread.
+	 * 
+	 * @return The item to continue the trigger with on the main thread, or null if the trigger has been stopped or an exception occurred
+	 */
+	@Nullable
+	private final TriggerItem walkItems(final TriggerItem first, final Event e) {
+		continuation.set(NOT_FINISHED);
+		try {
+			if (!TriggerItem.walk(first, e))
+				return null;
+			final Object next = continuation.get();
+			assert next != NOT_FINISHED : this;
+			return next == NOT_FINISHED ? null : (TriggerItem) next;
+		} finally {
+			continuation.remove();
+		}
+	}
+	
+	@Override
+	@Nullable
+	protected TriggerItem walk(final Event e) {
+		final TriggerItem first = walk(e, true);
+		if (first == null || first == end)
+			return actualNext;
+		if (queue.size() >= maxQueueSize) {
+			if (Skript.debug())
+				Skript.info(getIndentation() + "... too many background sections queued, running this one on the main thread");
+			return walkItems(first, e);
+		}
+		final Trigger t = getTrigger();
+		final File script = t == null ? null : t.getScript();
+		final Object locals = Variables.copyLocalVariables(e);
+		Delay.addDelayedEvent(e);
+		try {
+			pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					final TriggerItem next;
+					Variables.setThreadLocalVariables(locals);
+					try {
+						next = walkItems(first, e);
+					} finally {
+						Variables.setThreadLocalVariables(null);
+					}
+					TimingWheel.schedule(new Runnable() {
+						@Override
+						public void run() {
+							if (Skript.debug())
+								Skript.info(getIndentation() + "... continuing after background section");
+							Variables.mergeLocalVariables(locals);
+							if (next != null)
+								TriggerItem.walk(next, e);
+						}
+					}, 0, script);
+				}
+			});
+		} catch (final RejectedExecutionException ex) { // Skript is being disabled
+		}
+		return null;
+	}
+	
+	@Nullable
+	private TriggerItem actualNext;
+	
+	/**
+	 * The section's last item does not continue with the next item of the trigger, as that has to be run on the main thread.
+	 */
+	@Override
+	public AsyncSection setNext(final @Nullable TriggerItem next) {
+		actualNext = next;
+		return this;
+	}
+	
+	@Nullable
+	public TriggerItem getActualNext() {
+		return actualNext;
+	}
+	
+	@Override
+	public String toString(final @Nullable Event e, final boolean debug) {
+		return "in background";
+	}
+	
+}
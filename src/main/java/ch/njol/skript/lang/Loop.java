@@ -47,6 +47,17 @@ public class Loop extends TriggerSection {
 	private transient Map<Event, Object> current = new WeakHashMap<Event, Object>();
 	private transient Map<Event, Iterator<?>> currentIter = new WeakHashMap<Event, Iterator<?>>();
 	
+	/**
+	 * The event that last advanced this loop and its current value. The current values of all other events are stored in {@link #current}, thus the weak map is only
+	 * written to when the loop is advanced for a different event, e.g. after the loop has been suspended by a delay, and not on every iteration.
+	 * <p>
+	 * These are strong references, thus they are cleared when the loop ends or is {@link #exit(Event) exited}.
+	 */
+	@Nullable
+	private transient Event lastEvent;
+	@Nullable
+	private transient Object lastValue;
+	
 	@Nullable
 	private TriggerItem actualNext;
 	
@@ -89,10 +100,21 @@ public class Loop extends TriggerSection {
 		if (iter == null || !iter.hasNext()) {
 			if (iter != null)
 				currentIter.remove(e); // a loop inside another loop can be called multiple times in the same event
+			if (lastEvent == e) {
+				lastEvent = null;
+				lastValue = null;
+			}
 			debug(e, false);
 			return actualNext;
 		} else {
-			current.put(e, iter.next());
+			final Object value = iter.next();
+			final Event last = lastEvent;
+			if (last != e) {
+				if (last != null)
+					current.put(last, lastValue);
+				lastEvent = e;
+			}
+			lastValue = value;
 			return walk(e, true);
 		}
 	}
@@ -102,8 +124,21 @@ public class Loop extends TriggerSection {
 		return "loop " + expr.toString(e, debug);
 	}
 	
+	/**
+	 * Must be called when the loop is left before it has ended, e.g. with {@link ch.njol.skript.effects.EffExit exit} or
+	 * {@link ch.njol.skript.effects.EffReturn return}, so that the loop does not keep the event and its current value.
+	 */
+	public void exit(final Event e) {
+		if (lastEvent == e) {
+			lastEvent = null;
+			lastValue = null;
+		}
+	}
+	
 	@Nullable
 	public Object getCurrent(final Event e) {
+		if (e == lastEvent)
+			return lastValue;
 		return current.get(e);
 	}
 	
@@ -0,0 +1,62 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.lang;
+
+import org.bukkit.event.Event;
+
+import ch.njol.skript.lang.util.NumericExpressions;
+
+/**
+ * An expression of numbers which can evaluate its value as a primitive <tt>long</tt> or <tt>double</tt>, thus allowing nested arithmetic and numeric comparisons to be
+ * evaluated without boxing any intermediate values.
+ * <p>
+ * This should usually not be used directly, but through the methods of {@link NumericExpressions}, which fall back to {@link Expression#getSingle(Event)} for other
+ * expressions.
+ */
+public interface NumericExpression {
+	
+	/**
+	 * Whether {@link #getLong(Event)} and {@link #getDouble(Event)} can be used, i.e. whether this expression is single and always has a value. This must not change after the
+	 * expression has been initialised.
+	 * 
+	 * @return Whether this expression can be evaluated as a primitive number
+	 */
+	public boolean isNumeric();
+	
+	/**
+	 * @return Whether this expression's value is always an integer, in which case {@link #getLong(Event)} returns the exact value and should be preferred.
+	 */
+	public boolean isIntegral();
+	
+	/**
+	 * @param e
+	 * @return This expression's value, truncated to a long if it is not {@link #isIntegral() integral}
+	 */
+	public long getLong(Event e);
+	
+	/**
+	 * @param e
+	 * @return This expression's value as a double
+	 */
+	public double getDouble(Event e);
+	
+}
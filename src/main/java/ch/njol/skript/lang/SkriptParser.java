@@ -247,6 +247,8 @@ public class SkriptParser {
 							}
 							final T t = info.c.newInstance();
 							if (t.init(res.exprs, i, ScriptLoader.hasDelayBefore, res)) {
+								if (!info.c.isAnnotationPresent(AsyncSafe.class))
+									ScriptLoader.asyncSafe = false;
 								log.printLog();
 								return t;
 							}
@@ -334,7 +336,13 @@ public class SkriptParser {
 							return r;
 						}
 					}
-					log.printError(e.toString(null, false) + " " + Language.get("is") + " " + notOfType(types), ErrorQuality.NOT_AN_EXPRESSION);
+					// usually overridden by a better error or discarded altogether, thus only created if actually needed
+					log.printError(new Object() {
+						@Override
+						public String toString() {
+							return e.toString(null, false) + " " + Language.get("is") + " " + notOfType(types);
+						}
+					}, ErrorQuality.NOT_AN_EXPRESSION);
 					return null;
 				}
 				log.clear();
@@ -749,6 +757,7 @@ public class SkriptParser {
 				log.printError();
 				return null;
 			}
+			ScriptLoader.asyncSafe = false; // functions can't be checked as they might be loaded later and used by multiple triggers
 			log.printLog();
 			return e;
 		} finally {
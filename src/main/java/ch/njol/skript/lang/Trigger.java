@@ -38,6 +38,8 @@ public class Trigger extends TriggerSection {
 	@Nullable
 	private final File script;
 	
+	private boolean asyncSafe = false;
+	
 	public Trigger(final @Nullable File script, final String name, final SkriptEvent event, final List<TriggerItem> items) {
 		super(items);
 		this.script = script;
@@ -77,4 +79,21 @@ public class Trigger extends TriggerSection {
 		return script;
 	}
 	
+	/**
+	 * @return Whether this trigger only consists of {@link AsyncSafe} syntax elements and can thus be run on the thread of an asynchronous event
+	 */
+	public boolean isAsyncSafe() {
+		return asyncSafe;
+	}
+	
+	public void setAsyncSafe(final boolean asyncSafe) {
+		this.asyncSafe = asyncSafe;
+	}
+	
+	@Override
+	public String getTimingName() {
+		final File script = this.script;
+		return name + " (" + (script == null ? "<unknown>" : script.getName()) + ")";
+	}
+	
 }
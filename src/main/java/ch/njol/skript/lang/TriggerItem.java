@@ -27,7 +27,8 @@ import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
-import ch.njol.skript.timings.Timing;
+import ch.njol.skript.config.Node;
+import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.timings.Timings;
 import ch.njol.util.StringUtils;
 
@@ -46,6 +47,16 @@ public abstract class TriggerItem implements Debuggable {
 	@Nullable
 	private TriggerItem next = null;
 	
+	/**
+	 * The line this item was loaded from, or -1 if unknown
+	 */
+	private final int line = currentLine();
+	
+	private static int currentLine() {
+		final Node n = SkriptLogger.getNode();
+		return n == null ? -1 : n.getLine();
+	}
+	
 	protected TriggerItem() {}
 	
 	protected TriggerItem(final TriggerSection parent) {
@@ -88,9 +99,30 @@ public abstract class TriggerItem implements Debuggable {
 	public final static boolean walk(final TriggerItem start, final Event e) {
 		assert start != null && e != null;
 		TriggerItem i = start;
+		final Trigger trigger = Timings.enabled() ? start.getTrigger() : null;
+		// delay continuations and function calls don't run between SkriptEventHandler.logTriggerStart/End
+		final Trigger timedTrigger = trigger != null && Timings.current() != trigger ? trigger : null;
+		if (timedTrigger != null)
+			Timings.start(timedTrigger, timedTrigger.getTimingName());
 		try {
-			while (i != null)
-				i = i.walk(e);
+			if (trigger == null) {
+				while (i != null)
+					i = i.walk(e);
+			} else {
+				while (i != null) {
+					final TriggerItem item = i;
+					if (item instanceof Trigger) {
+						i = item.walk(e);
+						continue;
+					}
+					Timings.start(item, item.getTimingName());
+					try {
+						i = item.walk(e);
+					} finally {
+						Timings.stop(item);
+					}
+				}
+			}
 			
 			return true;
 		} catch (final StackOverflowError err) {
@@ -102,6 +134,9 @@ public abstract class TriggerItem implements Debuggable {
 		} catch (final Exception ex) {
 			if (ex.getStackTrace().length != 0) // empty exceptions have already been printed
 				Skript.exception(ex, i);
+		} finally {
+			if (timedTrigger != null)
+				Timings.stop(timedTrigger);
 		}
 		return false;
 	}
@@ -126,6 +161,29 @@ public abstract class TriggerItem implements Debuggable {
 		return ind;
 	}
 	
+	/**
+	 * @return The line of the script this item was loaded from, or -1 if unknown (e.g. for effect commands)
+	 */
+	public final int getLine() {
+		return line;
+	}
+	
+	@Nullable
+	private String timingName = null;
+	
+	/**
+	 * @return The name of this item in timings reports, i.e. its script, line and description
+	 */
+	public String getTimingName() {
+		String name = timingName;
+		if (name == null) {
+			final Trigger t = getTrigger();
+			final File sc = t == null ? null : t.getScript();
+			timingName = name = (sc == null ? "<unknown>" : sc.getName()) + ":" + line + " (" + toString() + ")";
+		}
+		return name;
+	}
+	
 	protected final void debug(final Event e, final boolean run) {
 		if (!Skript.debug())
 			return;
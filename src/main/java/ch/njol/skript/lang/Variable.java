@@ -40,6 +40,7 @@ import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
+import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
 import ch.njol.skript.SkriptConfig;
@@ -153,7 +154,10 @@ public class Variable<T> implements Expression<T> {
 		final VariableString vs = VariableString.newInstance(name.startsWith(LOCAL_VARIABLE_TOKEN) ? "" + name.substring(LOCAL_VARIABLE_TOKEN.length()).trim() : name, StringMode.VARIABLE_NAME);
 		if (vs == null)
 			return null;
-		return new Variable<T>(vs, types, name.startsWith(LOCAL_VARIABLE_TOKEN), name.endsWith(SEPARATOR + "*"), null);
+		final boolean local = name.startsWith(LOCAL_VARIABLE_TOKEN), list = name.endsWith(SEPARATOR + "*");
+		if (list && !local)
+			ScriptLoader.asyncSafe = false; // global lists are returned and iterated without holding the variables lock, and adding to them searches for a free index without it
+		return new Variable<T>(vs, types, local, list, null);
 	}
 	
 	@Override
@@ -169,6 +173,13 @@ public class Variable<T> implements Expression<T> {
 		return list;
 	}
 	
+	/**
+	 * @return The name of this variable in the given event as used in the variables map, i.e. in lower case and without the local variable token
+	 */
+	public String getName(final Event e) {
+		return name.toString(e).toLowerCase(Locale.ENGLISH);
+	}
+	
 	@Override
 	public boolean isSingle() {
 		return !list;
@@ -474,8 +485,7 @@ public class Variable<T> implements Expression<T> {
 						int i = 1;
 						for (final Object d : delta) {
 							if (o != null)
-								while (o.containsKey("" + i))
-									i++;
+								i = Variables.getFreeListIndex(o, i);
 							setIndex(e, "" + i, d);
 							i++;
 						}
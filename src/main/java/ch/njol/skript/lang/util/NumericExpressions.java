@@ -0,0 +1,77 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.lang.util;
+
+import org.bukkit.event.Event;
+
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.NumericExpression;
+
+/**
+ * Evaluates number expressions without boxing their values if they are {@link NumericExpression}s, and through {@link Expression#getSingle(Event)} otherwise.
+ * <p>
+ * Missing values are evaluated as 0 like in arithmetic, thus use {@link #isNumeric(Expression)} if a missing value has to be handled differently.
+ */
+public abstract class NumericExpressions {
+	
+	private NumericExpressions() {}
+	
+	private final static Class<?>[] integerTypes = {Long.class, Integer.class, Short.class, Byte.class};
+	
+	/**
+	 * @param e
+	 * @return Whether the given expression can be evaluated as a primitive number, i.e. whether it is a {@link NumericExpression} which is single and always has a value.
+	 */
+	public final static boolean isNumeric(final Expression<?> e) {
+		return e instanceof NumericExpression && ((NumericExpression) e).isNumeric();
+	}
+	
+	/**
+	 * @param e
+	 * @return Whether all values of the given expression are integers, judging by its {@link NumericExpression#isIntegral() numeric type} or its return type.
+	 */
+	public final static boolean isIntegral(final Expression<?> e) {
+		if (isNumeric(e))
+			return ((NumericExpression) e).isIntegral();
+		final Class<?> r = e.getReturnType();
+		for (final Class<?> i : integerTypes) {
+			if (i.isAssignableFrom(r))
+				return true;
+		}
+		return false;
+	}
+	
+	public final static long getLong(final Expression<? extends Number> e, final Event event) {
+		if (isNumeric(e))
+			return ((NumericExpression) e).getLong(event);
+		final Number n = e.getSingle(event);
+		return n == null ? 0 : n.longValue();
+	}
+	
+	public final static double getDouble(final Expression<? extends Number> e, final Event event) {
+		if (isNumeric(e))
+			return ((NumericExpression) e).getDouble(event);
+		final Number n = e.getSingle(event);
+		return n == null ? 0 : n.doubleValue();
+	}
+	
+}
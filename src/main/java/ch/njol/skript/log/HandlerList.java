@@ -21,35 +21,93 @@
 
 package ch.njol.skript.log;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
+ * A stack of log handlers, backed by an array as handlers are started and stopped very often (e.g. multiple times for each attempt to parse an expression).
+ * 
  * @author Peter Güttinger
  */
 public class HandlerList implements Iterable<LogHandler> {
 	
-	private final LinkedList<LogHandler> list = new LinkedList<LogHandler>();
+	private LogHandler[] handlers = new LogHandler[16];
+	private int size = 0;
 	
 	public void add(final LogHandler h) {
-		list.addFirst(h);
+		if (size == handlers.length)
+			handlers = Arrays.copyOf(handlers, size * 2);
+		handlers[size++] = h;
 	}
 	
 	@Nullable
 	public LogHandler remove() {
-		return list.pop();
+		if (size == 0)
+			throw new NoSuchElementException();
+		final LogHandler h = handlers[--size];
+		handlers[size] = null;
+		return h;
+	}
+	
+	/**
+	 * @return The most recently added handler, or null if this list is empty
+	 */
+	@Nullable
+	public LogHandler peek() {
+		return size == 0 ? null : handlers[size - 1];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @param i The index of the handler, where 0 is the most recently added handler
+	 * @return The handler at the given index
+	 */
+	public LogHandler get(final int i) {
+		assert i >= 0 && i < size;
+		final LogHandler h = handlers[size - 1 - i];
+		assert h != null;
+		return h;
 	}
 	
-	@SuppressWarnings("null")
+	/**
+	 * Iterates over the handlers starting with the most recently added one
+	 */
 	@Override
 	public Iterator<LogHandler> iterator() {
-		return list.iterator();
+		return new Iterator<LogHandler>() {
+			private int i = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+			
+			@Override
+			public LogHandler next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return get(i++);
+			}
+			
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
 	}
 	
 	public boolean contains(final LogHandler h) {
-		return list.contains(h);
+		for (int i = size - 1; i >= 0; i--) {
+			if (handlers[i] == h)
+				return true;
+		}
+		return false;
 	}
 	
 }
@@ -37,7 +37,12 @@ public class LogEntry {
 	public final Level level;
 	public final int quality;
 	
-	public final String message;
+	/**
+	 * Either the message or an object whose toString() returns the message, which is only called if the message is actually needed (e.g. for errors that are usually discarded)
+	 */
+	private final Object message;
+	@Nullable
+	private String formattedMessage = null;
 	
 	@Nullable
 	public final Node node;
@@ -71,6 +76,13 @@ public class LogEntry {
 	}
 	
 	public LogEntry(final Level level, final int quality, final String message, final @Nullable Node node, final boolean tracked) {
+		this(level, quality, (Object) message, node, tracked);
+	}
+	
+	/**
+	 * @param message The message or an object whose toString() creates the message when it is first needed. toString() must not depend on mutable state.
+	 */
+	public LogEntry(final Level level, final int quality, final Object message, final @Nullable Node node, final boolean tracked) {
 		this.level = level;
 		this.quality = quality;
 		this.message = message;
@@ -108,32 +120,37 @@ public class LogEntry {
 		return toString();
 	}
 	
-	private boolean used = false;
+	/**
+	 * @return The message without any node information
+	 */
+	public String getRawMessage() {
+		String m = formattedMessage;
+		if (m == null)
+			formattedMessage = m = "" + message;
+		return m;
+	}
+	
+	boolean isTracked() {
+		return tracked;
+	}
 	
 	void discarded(final String info) {
-		used = true;
 		if (tracked)
-			SkriptLogger.LOGGER.warning(" # LogEntry '" + message + "'" + from + " discarded" + findCaller() + "; " + (new Exception()).getStackTrace()[1] + "; " + info);
+			SkriptLogger.LOGGER.warning(" # LogEntry '" + getRawMessage() + "'" + from + " discarded" + findCaller() + "; " + (new Exception()).getStackTrace()[1] + "; " + info);
 	}
 	
 	void logged() {
-		used = true;
 		if (tracked)
-			SkriptLogger.LOGGER.warning(" # LogEntry '" + message + "'" + from + " logged" + findCaller());
-	}
-	
-	@Override
-	protected void finalize() throws Throwable {
-		assert used : message + from;
+			SkriptLogger.LOGGER.warning(" # LogEntry '" + getRawMessage() + "'" + from + " logged" + findCaller());
 	}
 	
 	@Override
 	public String toString() {
 		final Node n = node;
 		if (n == null || level.intValue() < Level.WARNING.intValue())
-			return message;
+			return getRawMessage();
 		final Config c = n.getConfig();
-		return message + from + " (" + c.getFileName() + ", line " + n.getLine() + ": " + n.save().trim() + "')";
+		return getRawMessage() + from + " (" + c.getFileName() + ", line " + n.getLine() + ": " + n.save().trim() + "')";
 	}
 	
 }
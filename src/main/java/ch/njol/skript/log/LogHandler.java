@@ -41,9 +41,12 @@ public abstract class LogHandler {
 	 */
 	protected void onStop() {}
 	
+	/**
+	 * Removes this handler from the active handlers stack. Does nothing if the handler has already been stopped.
+	 */
 	public final void stop() {
-		SkriptLogger.removeHandler(this);
-		onStop();
+		if (SkriptLogger.removeHandler(this))
+			onStop();
 	}
 	
 	public boolean isStopped() {
@@ -39,13 +39,35 @@ public class ParseLogHandler extends LogHandler {
 	
 	private final List<LogEntry> log = new ArrayList<LogEntry>();
 	
+	/**
+	 * Whether this handler was created by {@link SkriptLogger#startParseLogHandler()} and is returned to its pool when stopped
+	 */
+	private final boolean pooled;
+	
+	public ParseLogHandler() {
+		this(false);
+	}
+	
+	ParseLogHandler(final boolean pooled) {
+		this.pooled = pooled;
+	}
+	
+	/**
+	 * Prepares a pooled handler for reuse
+	 */
+	void reset() {
+		error = null;
+		log.clear();
+		printedErrorOrLog = false;
+	}
+	
 	@Override
 	public LogResult log(final LogEntry entry) {
 		if (entry.getLevel().intValue() >= Level.SEVERE.intValue()) {
 			final LogEntry e = error;
 			if (e == null || entry.getQuality() > e.getQuality()) {
 				error = entry;
-				if (e != null)
+				if (e != null && e.isTracked())
 					e.discarded("overridden by '" + entry.getMessage() + "' (" + ErrorQuality.get(entry.getQuality()) + " > " + ErrorQuality.get(e.getQuality()) + ")");
 			}
 		} else {
@@ -60,6 +82,8 @@ public class ParseLogHandler extends LogHandler {
 	public void onStop() {
 		if (!printedErrorOrLog && Skript.testing())
 			SkriptLogger.LOGGER.warning("Parse log wasn't instructed to print anything at " + SkriptLogger.getCaller());
+		if (pooled)
+			SkriptLogger.releaseParseLogHandler(this);
 	}
 	
 	public void error(final String error, final ErrorQuality quality) {
@@ -108,13 +132,22 @@ public class ParseLogHandler extends LogHandler {
 	}
 	
 	public void printError(final String def, final ErrorQuality quality) {
+		printError((Object) def, quality);
+	}
+	
+	/**
+	 * Like {@link #printError(String, ErrorQuality)}, but the default error is only converted to a string if it is actually logged.
+	 * 
+	 * @param def Error to log if no error of at least the given quality has been logged so far, or an object whose toString() creates that error
+	 */
+	public void printError(final Object def, final ErrorQuality quality) {
 		printedErrorOrLog = true;
 		stop();
 		final LogEntry error = this.error;
 		if (error != null && error.quality >= quality.quality())
 			SkriptLogger.log(error);
 		else
-			SkriptLogger.log(new LogEntry(SkriptLogger.SEVERE, quality, def));
+			SkriptLogger.log(new LogEntry(SkriptLogger.SEVERE, quality.quality(), def, SkriptLogger.getNode(), false));
 		for (final LogEntry e : log)
 			e.discarded("not printed");
 	}
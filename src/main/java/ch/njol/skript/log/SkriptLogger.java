@@ -68,12 +68,38 @@ public abstract class SkriptLogger {
 	}
 	
 	/**
-	 * Shorthand for <tt>{@link #startLogHandler(LogHandler) startLogHandler}(new {@link ParseLogHandler}());</tt>
+	 * Stopped ParseLogHandlers which can be reused by {@link #startParseLogHandler()}
+	 */
+	private final static ParseLogHandler[] parseLogHandlerPool = new ParseLogHandler[32];
+	private static int pooledParseLogHandlers = 0;
+	
+	/**
+	 * Like <tt>{@link #startLogHandler(LogHandler) startLogHandler}(new {@link ParseLogHandler}());</tt>, but reuses stopped handlers, as parsing starts a lot of them.
+	 * <p>
+	 * Thus the returned handler may only be used until it is stopped and another ParseLogHandler is started, i.e. it can e.g. still be queried for its error right after
+	 * {@link ParseLogHandler#printLog()}, but must not be kept around.
 	 * 
-	 * @return A newly created ParseLogHandler
+	 * @return An empty ParseLogHandler
 	 */
 	public final static ParseLogHandler startParseLogHandler() {
-		return startLogHandler(new ParseLogHandler());
+		final ParseLogHandler h;
+		if (pooledParseLogHandlers > 0) {
+			h = parseLogHandlerPool[--pooledParseLogHandlers];
+			parseLogHandlerPool[pooledParseLogHandlers] = null;
+			assert h != null;
+			h.reset();
+		} else {
+			h = new ParseLogHandler(true);
+		}
+		return startLogHandler(h);
+	}
+	
+	/**
+	 * Called by pooled ParseLogHandlers when they are stopped
+	 */
+	final static void releaseParseLogHandler(final ParseLogHandler h) {
+		if (pooledParseLogHandlers < parseLogHandlerPool.length)
+			parseLogHandlerPool[pooledParseLogHandlers++] = h;
 	}
 	
 	/**
@@ -105,15 +131,21 @@ public abstract class SkriptLogger {
 		return h;
 	}
 	
-	final static void removeHandler(final LogHandler h) {
-		if (!handlers.contains(h))
-			return;
-		if (!h.equals(handlers.remove())) {
-			int i = 1;
-			while (!h.equals(handlers.remove()))
-				i++;
-			LOGGER.severe("[Skript] " + i + " log handler" + (i == 1 ? " was" : "s were") + " not stopped properly! (at " + getCaller() + ") [if you're a server admin and you see this message please file a bug report at http://dev.bukkit.org/server-mods/skript/tickets/ if there is not already one]");
+	/**
+	 * @return Whether the handler was active, i.e. false if it has already been stopped
+	 */
+	final static boolean removeHandler(final LogHandler h) {
+		if (handlers.peek() == h) {
+			handlers.remove();
+			return true;
 		}
+		if (!handlers.contains(h))
+			return false;
+		int i = 1;
+		while (h != handlers.remove())
+			i++;
+		LOGGER.severe("[Skript] " + i + " log handler" + (i == 1 ? " was" : "s were") + " not stopped properly! (at " + getCaller() + ") [if you're a server admin and you see this message please file a bug report at http://dev.bukkit.org/server-mods/skript/tickets/ if there is not already one]");
+		return true;
 	}
 	
 	final static boolean isStopped(final LogHandler h) {
@@ -171,7 +203,8 @@ public abstract class SkriptLogger {
 			return;
 		if (Skript.testing() && node != null && node.debug())
 			System.out.print("---> " + entry.level + "/" + ErrorQuality.get(entry.quality) + ": " + entry.getMessage() + " ::" + LogEntry.findCaller());
-		for (final LogHandler h : handlers) {
+		for (int i = 0; i < handlers.size(); i++) {
+			final LogHandler h = handlers.get(i);
 			final LogResult r = h.log(entry);
 			switch (r) {
 				case CACHED:
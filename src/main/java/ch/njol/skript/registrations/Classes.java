@@ -26,6 +26,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.NotSerializableException;
+import java.io.PushbackInputStream;
 import java.io.SequenceInputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -671,6 +672,12 @@ public abstract class Classes {
 		return r;
 	}
 	
+	/**
+	 * The start of a value saved in the compact format, which is saved with its whole header as opposed to values in the default format. Only values with a class ID (i.e.
+	 * objects and enums) are saved in the compact format, for which the remainder of a value in the default format can never start like this.
+	 */
+	private final static byte[] COMPACT_START = {(byte) 'Y', (byte) 'g', (byte) 'g', 0, (Yggdrasil.COMPACT_VERSION >>> 8) & 0xFF, Yggdrasil.COMPACT_VERSION & 0xFF};
+	
 	/**
 	 * Must be called on the appropriate thread for the given value (i.e. the main thread currently)
 	 */
@@ -705,6 +712,18 @@ public abstract class Classes {
 		
 		try {
 			final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			if (SkriptConfig.compactVariableFormat.value() && hasClassID(ci)) {
+				final YggdrasilOutputStream yout = Variables.yggdrasil.newCompactOutputStream(bout);
+				yout.writeObject(o);
+				yout.flush();
+				yout.close();
+				final byte[] r = bout.toByteArray();
+				
+				Object d;
+				assert equals(o, d = deserialize(ci, new ByteArrayInputStream(r))) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(r);
+				
+				return new SerializedVariable.Value(ci.getCodeName(), r);
+			}
 			final YggdrasilOutputStream yout = Variables.yggdrasil.newOutputStream(bout);
 			yout.writeObject(o);
 			yout.flush();
@@ -726,6 +745,11 @@ public abstract class Classes {
 		}
 	}
 	
+	private final static boolean hasClassID(final ClassInfo<?> c) {
+		final Tag t = Tag.getType(c.getC());
+		return t == Tag.T_OBJECT || t == Tag.T_ENUM;
+	}
+	
 	private final static boolean equals(final @Nullable Object o, final @Nullable Object d) {
 		if (o instanceof Chunk) { // CraftChunk does neither override equals nor is it a "coordinate-specific singleton" like Block
 			if (!(d instanceof Chunk))
@@ -755,7 +779,14 @@ public abstract class Classes {
 		assert (s = type.getSerializer()) != null && (s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true) : type + "; " + s + "; " + Bukkit.isPrimaryThread();
 		YggdrasilInputStream in = null;
 		try {
-			value = new SequenceInputStream(new ByteArrayInputStream(getYggdrasilStart(type)), value);
+			boolean compact = false;
+			if (hasClassID(type)) {
+				final PushbackInputStream pin = new PushbackInputStream(value, COMPACT_START.length);
+				compact = isCompact(pin);
+				value = pin;
+			}
+			if (!compact)
+				value = new SequenceInputStream(new ByteArrayInputStream(getYggdrasilStart(type)), value);
 			in = Variables.yggdrasil.newInputStream(value);
 			return in.readObject();
 		} catch (final IOException e) { // i.e. invalid save
@@ -774,6 +805,22 @@ public abstract class Classes {
 		}
 	}
 	
+	/**
+	 * @return Whether the given stream starts with {@link #COMPACT_START}. The stream is left unchanged.
+	 */
+	private final static boolean isCompact(final PushbackInputStream in) throws IOException {
+		final byte[] start = new byte[COMPACT_START.length];
+		int n = 0;
+		while (n < start.length) {
+			final int r = in.read(start, n, start.length - n);
+			if (r < 0)
+				break;
+			n += r;
+		}
+		in.unread(start, 0, n);
+		return n == start.length && Arrays.equals(start, COMPACT_START);
+	}
+	
 	/**
 	 * Deserialises an object.
 	 * <p>
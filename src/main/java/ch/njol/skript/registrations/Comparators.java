@@ -23,8 +23,6 @@ package ch.njol.skript.registrations;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -34,7 +32,7 @@ import ch.njol.skript.classes.Comparator.ComparatorInfo;
 import ch.njol.skript.classes.Comparator.Relation;
 import ch.njol.skript.classes.Converter;
 import ch.njol.skript.classes.InverseComparator;
-import ch.njol.util.Pair;
+import ch.njol.util.coll.ClassPairCache;
 
 /**
  * @author Peter Güttinger
@@ -82,17 +80,21 @@ public class Comparators {
 		return javaComparator;
 	}
 	
-	private final static Map<Pair<Class<?>, Class<?>>, Comparator<?, ?>> comparatorsQuickAccess = new HashMap<Pair<Class<?>, Class<?>>, Comparator<?, ?>>();
+	/**
+	 * Thread-safe and allocation-free once a pair of classes has been used, see {@link ClassPairCache}.
+	 */
+	private final static ClassPairCache<Comparator<?, ?>> comparatorsQuickAccess = new ClassPairCache<Comparator<?, ?>>() {
+		@Override
+		@Nullable
+		protected Comparator<?, ?> compute(final Class<?> f, final Class<?> s) {
+			return getComparator_i(f, s);
+		}
+	};
 	
 	@SuppressWarnings("unchecked")
 	@Nullable
 	public final static <F, S> Comparator<? super F, ? super S> getComparator(final Class<F> f, final Class<S> s) {
-		final Pair<Class<?>, Class<?>> p = new Pair<Class<?>, Class<?>>(f, s);
-		if (comparatorsQuickAccess.containsKey(p))
-			return (Comparator<? super F, ? super S>) comparatorsQuickAccess.get(p);
-		final Comparator<?, ?> comp = getComparator_i(f, s);
-		comparatorsQuickAccess.put(p, comp);
-		return (Comparator<? super F, ? super S>) comp;
+		return (Comparator<? super F, ? super S>) comparatorsQuickAccess.get(f, s);
 	}
 	
 	@SuppressWarnings("unchecked")
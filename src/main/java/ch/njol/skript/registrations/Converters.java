@@ -25,9 +25,7 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -36,7 +34,7 @@ import ch.njol.skript.classes.ChainedConverter;
 import ch.njol.skript.classes.Converter;
 import ch.njol.skript.classes.Converter.ConverterInfo;
 import ch.njol.skript.classes.Converter.ConverterUtils;
-import ch.njol.util.Pair;
+import ch.njol.util.coll.ClassPairCache;
 
 /**
  * @author Peter Güttinger
@@ -220,7 +218,17 @@ public abstract class Converters {
 		return r;
 	}
 	
-	private final static Map<Pair<Class<?>, Class<?>>, Converter<?, ?>> convertersCache = new HashMap<Pair<Class<?>, Class<?>>, Converter<?, ?>>();
+	/**
+	 * Caches converters by their source and target classes. This is thread-safe, and converters for pairs of classes that have been used before are found without allocating
+	 * any objects, which matters as this is used whenever a value's runtime type differs from an expression's parse-time type.
+	 */
+	private final static ClassPairCache<Converter<?, ?>> convertersCache = new ClassPairCache<Converter<?, ?>>() {
+		@Override
+		@Nullable
+		protected Converter<?, ?> compute(final Class<?> from, final Class<?> to) {
+			return getConverter_i(from, to);
+		}
+	};
 	
 	/**
 	 * Tests whether a converter between the given classes exists.
@@ -254,12 +262,7 @@ public abstract class Converters {
 	@SuppressWarnings("unchecked")
 	@Nullable
 	public final static <F, T> Converter<? super F, ? extends T> getConverter(final Class<F> from, final Class<T> to) {
-		final Pair<Class<?>, Class<?>> p = new Pair<Class<?>, Class<?>>(from, to);
-		if (convertersCache.containsKey(p)) // can contain null to denote nonexistence of a converter
-			return (Converter<? super F, ? extends T>) convertersCache.get(p);
-		final Converter<? super F, ? extends T> c = getConverter_i(from, to);
-		convertersCache.put(p, c);
-		return c;
+		return (Converter<? super F, ? extends T>) convertersCache.get(from, to);
 	}
 	
 	@SuppressWarnings("unchecked")
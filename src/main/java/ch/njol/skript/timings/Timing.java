@@ -21,50 +21,76 @@
 
 package ch.njol.skript.timings;
 
-import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
-
-import org.bukkit.event.Event;
-
-import com.google.common.collect.ImmutableMap;
-
-import ch.njol.skript.Skript;
-import ch.njol.skript.lang.Trigger;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * Timing for certain action.
+ * Cumulative timing statistics of an event, a trigger or a single trigger item.
  */
+@ThreadSafe
 public class Timing {
 	
-	private Map<Trigger,Long> triggerTimes;
-	private long eventTime;
+	/**
+	 * Number of histogram buckets. Bucket <tt>i</tt> counts runs which took less than <tt>2<sup>i</sup></tt> microseconds, the last bucket counts all slower runs.
+	 */
+	public final static int HISTOGRAM_SIZE = 24;
+	
+	private final String name;
+	
+	private long count = 0;
+	private long total = 0;
+	private long max = 0;
+	private final long[] histogram = new long[HISTOGRAM_SIZE];
 	
 	/**
 	 * Creates a new timing. Only used by {@link Timings}
 	 */
-	protected Timing() {
-		triggerTimes = new LinkedHashMap<>();
-		eventTime = 0L;
+	protected Timing(final String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * @return A human-readable description of what is timed, e.g. the trigger's name or the script and line of a trigger item
+	 */
+	public String getName() {
+		return name;
 	}
 	
-	public void addTrigger(Trigger t, long time) {
-		triggerTimes.put(t, time);
+	/**
+	 * Records a single run.
+	 * 
+	 * @param time The time the run took in nanoseconds
+	 */
+	public synchronized void record(final long time) {
+		count++;
+		total += time;
+		if (time > max)
+			max = time;
+		histogram[Math.min(HISTOGRAM_SIZE - 1, 64 - Long.numberOfLeadingZeros(time / 1000))]++;
 	}
 	
-	public void setEventTime(long time) {
-		eventTime = time;
+	public synchronized long getCount() {
+		return count;
 	}
 	
-	@SuppressWarnings("null")
-	public Map<Trigger,Long> getTriggerTimes() {
-		return ImmutableMap.copyOf(triggerTimes);
+	/**
+	 * @return The total time of all runs in nanoseconds
+	 */
+	public synchronized long getTotal() {
+		return total;
 	}
 	
-	public long getEventTime() {
-		return eventTime;
+	/**
+	 * @return The time of the slowest run in nanoseconds
+	 */
+	public synchronized long getMax() {
+		return max;
 	}
+	
+	/**
+	 * @return A copy of the histogram, see {@link #HISTOGRAM_SIZE}
+	 */
+	public synchronized long[] getHistogram() {
+		return histogram.clone();
+	}
+	
 }
@@ -26,71 +26,155 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.DateFormat;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.events.util.PlayerMoveEventHandler;
+import ch.njol.skript.lang.AsyncSection;
 import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.localization.Language;
+import ch.njol.skript.util.TimingWheel;
+import ch.njol.skript.variables.Variables;
+import ch.njol.skript.variables.VariablesStorage;
 
 /**
  * Creates timing reports.
  */
 public class TimingReporter {
 	
-	@SuppressWarnings("null")
-	public static String getReport() {
-		Map<Object,Timing> timings = Timings.timings;
-		Map<String,Long> triggers = new HashMap<>();
-		Map<Object,Long> events = new HashMap<>();
-		
-		for (Entry<Object,Timing> entry : timings.entrySet()) {
-			Object key = entry.getKey();
-			Timing val = entry.getValue();
-			
-			for (Entry<Trigger,Long> trigger : val.getTriggerTimes().entrySet()) {
-				String name = trigger.getKey().getName();
-				long tt = 0L;
-				if (triggers.containsKey(name))
-					tt = triggers.get(name);
-				tt += trigger.getValue();
-				triggers.put(name, tt);
+	private final static Comparator<Timing> byTotal = new Comparator<Timing>() {
+		@Override
+		public int compare(final Timing t1, final Timing t2) {
+			final long a = t1.getTotal(), b = t2.getTotal();
+			return a > b ? -1 : a < b ? 1 : 0;
+		}
+	};
+	
+	/**
+	 * @return All events, triggers and trigger items that have been timed so far, each sorted by their total time
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Timing>[] getTimings() {
+		final List<Timing> events = new ArrayList<>(), triggers = new ArrayList<>(), items = new ArrayList<>();
+		synchronized (Timings.timings) {
+			for (final Entry<Object, Timing> e : Timings.timings.entrySet()) {
+				final Object key = e.getKey();
+				(key instanceof Trigger ? triggers : key instanceof TriggerItem ? items : events).add(e.getValue());
 			}
-			
-			long evtTime = 0L;
-			if (events.containsKey(key))
-				evtTime = events.get(key);
-			evtTime += val.getEventTime();
-			events.put(key, evtTime);
 		}
-		
-		long length = Timings.disableTime - Timings.enableTime;
-		StringBuilder sb = new StringBuilder();
+		Collections.sort(events, byTotal);
+		Collections.sort(triggers, byTotal);
+		Collections.sort(items, byTotal);
+		return new List[] {events, triggers, items};
+	}
+	
+	private static long getLength() {
+		return (Timings.enabled() ? System.nanoTime() : Timings.disableTime) - Timings.enableTime;
+	}
+	
+	public static String getReport() {
+		final List<Timing>[] timings = getTimings();
+		final long length = getLength();
+		final StringBuilder sb = new StringBuilder();
 		sb.append(String.format(Language.get("timings.start"), length / (float) 1000000000) + "\n");
-		
+		sb.append(Language.get("timings.events") + "\n");
+		append(sb, timings[0], length);
 		sb.append(Language.get("timings.triggers") + "\n");
-		for (Entry<String,Long> trigger : triggers.entrySet()) {
-			float percent = trigger.getValue() / (float) length * 100;
-			sb.append(trigger.getKey() + ": " + (trigger.getValue() / (float) 1000000) + "ms (" + percent + "%)\n");
+		append(sb, timings[1], length);
+		sb.append(Language.get("timings.lines") + "\n");
+		append(sb, timings[2], length);
+		sb.append(Language.get("timings.databases") + "\n");
+		for (final VariablesStorage s : Variables.getStorages()) {
+			final long batches = s.getWrittenBatches();
+			sb.append(s.getName()).append(": ").append(s.getQueueDepth()).append(" queued, ").append(s.getWrittenChanges()).append(" written in ").append(batches)
+					.append(" batches, avg ").append(batches == 0 ? 0 : s.getTotalWriteTime() / batches / (float) 1000000).append("ms, max ").append(s.getMaxWriteTime() / (float) 1000000)
+					.append("ms, ").append(s.getCoalescedChanges()).append(" coalesced\n");
 		}
-		
-		sb.append(Language.get("timings.events") + "\n");
-		for (Entry<Object,Long> event : events.entrySet()) {
-			float percent = event.getValue() / (float) length * 100;
-			sb.append(event.getKey() + ": " + (event.getValue() / (float) 1000000) + "ms (" + percent + "%)\n");
+		sb.append(Language.get("timings.statistics") + "\n");
+		sb.append("scheduler: ").append(TimingWheel.getPending()).append(" pending, ").append(TimingWheel.getBacklog()).append(" deferred, ").append(TimingWheel.getLastTickCount())
+				.append(" run in the last tick, tick budget exceeded in ").append(TimingWheel.getExceededTicks()).append(" ticks\n");
+		sb.append("background sections: ").append(AsyncSection.getActiveCount()).append(" running, ").append(AsyncSection.getQueueSize()).append(" queued, ")
+				.append(AsyncSection.getPoolSize()).append(" threads\n");
+		sb.append("move events in the last tick: ").append(PlayerMoveEventHandler.getFilteredLastTick()).append(" filtered, ").append(PlayerMoveEventHandler.getDispatchedLastTick())
+				.append(" dispatched\n");
+		return sb.toString();
+	}
+	
+	private static void append(final StringBuilder sb, final List<Timing> timings, final long length) {
+		for (final Timing t : timings) {
+			final long count = t.getCount(), total = t.getTotal();
+			sb.append(t.getName()).append(": ").append(total / (float) 1000000).append("ms (").append(total / (float) length * 100).append("%), ")
+					.append(count).append("x, avg ").append(count == 0 ? 0 : total / count / (float) 1000000).append("ms, max ").append(t.getMax() / (float) 1000000).append("ms\n");
+			sb.append("    ");
+			final long[] histogram = t.getHistogram();
+			for (int i = 0; i < histogram.length; i++) {
+				if (histogram[i] == 0)
+					continue;
+				sb.append(i == histogram.length - 1 ? ">=" : "<").append(formatMicros(1L << (i == histogram.length - 1 ? i - 1 : i))).append(": ").append(histogram[i]).append("  ");
+			}
+			sb.append("\n");
+		}
+	}
+	
+	private static String formatMicros(final long micros) {
+		return micros >= 1000000 ? micros / 1000000 + "s" : micros >= 1000 ? micros / 1000 + "ms" : micros + "µs";
+	}
+	
+	/**
+	 * Creates a short summary of the slowest triggers, suitable to be sent to a player.
+	 * 
+	 * @param amount Maximum number of triggers to include
+	 * @return The summary's lines
+	 */
+	public static List<String> getSummary(final int amount) {
+		final List<Timing> triggers = getTimings()[1];
+		final long length = getLength();
+		final List<String> r = new ArrayList<>();
+		for (final Timing t : triggers.subList(0, Math.min(amount, triggers.size())))
+			r.add(t.getName() + ": " + t.getTotal() / (float) 1000000 + "ms (" + t.getTotal() / (float) length * 100 + "%), max " + t.getMax() / (float) 1000000 + "ms");
+		return r;
+	}
+	
+	/**
+	 * Creates the collapsed stacks of all recorded frames, i.e. one line per stack path with the frames separated by semicolons, followed by the path's self time in
+	 * microseconds. This is the input format of common flame graph tools.
+	 */
+	public static String getCollapsedStacks() {
+		final StringBuilder sb = new StringBuilder();
+		synchronized (Timings.stacks) {
+			for (final Entry<String, long[]> e : Timings.stacks.entrySet()) {
+				final long micros = e.getValue()[0] / 1000;
+				if (micros > 0)
+					sb.append(e.getKey()).append(' ').append(micros).append('\n');
+			}
 		}
-		
 		return sb.toString();
 	}
 	
-	public static void saveToFile(String str) {
-		File folder = Skript.getInstance().getDataFolder();
-		String timestamp = DateFormat.getTimeInstance().format(System.currentTimeMillis()).replaceAll(":", "_");
-		File file = new File(folder + "/timings-" + timestamp + ".log");
+	/**
+	 * Saves the report and the collapsed stacks to the data folder.
+	 * 
+	 * @return The report's file
+	 */
+	public static File save() {
+		final String timestamp = DateFormat.getTimeInstance().format(System.currentTimeMillis()).replaceAll(":", "_");
+		saveToFile(new File(Skript.getInstance().getDataFolder(), "timings-" + timestamp + ".folded"), getCollapsedStacks());
+		final File report = new File(Skript.getInstance().getDataFolder(), "timings-" + timestamp + ".log");
+		saveToFile(report, getReport());
+		return report;
+	}
+	
+	public static void saveToFile(final String str) {
+		final String timestamp = DateFormat.getTimeInstance().format(System.currentTimeMillis()).replaceAll(":", "_");
+		saveToFile(new File(Skript.getInstance().getDataFolder(), "timings-" + timestamp + ".log"), str);
+	}
+	
+	private static void saveToFile(final File file, final String str) {
 		if (!file.exists())
 			try {
 				file.createNewFile();
@@ -99,11 +183,13 @@ public class TimingReporter {
 				return;
 			}
 		try {
-			PrintWriter out = new PrintWriter(file);
+			PrintWriter out = new PrintWriter(file, "UTF-8");
 			out.write(str);
 			out.close();
 		} catch (FileNotFoundException e) {
 			e.printStackTrace(); // Can't happen...
+		} catch (final IOException e) {
+			e.printStackTrace();
 		}
 	}
 }
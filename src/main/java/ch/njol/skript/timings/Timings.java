@@ -21,36 +21,36 @@
 
 package ch.njol.skript.timings;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
-import ch.njol.skript.SkriptEventHandler;
+import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * Static utils for Skript timings.
+ * <p>
+ * Timed code is bracketed with {@link #start(Object, String)} and {@link #stop(Object)}, which maintain a stack of frames per thread. Every frame is recorded in the
+ * {@link Timing} of its key, and its self time (i.e. excluding nested frames) is added to the frame's stack path for {@link TimingReporter#getCollapsedStacks()}.
  */
 public class Timings {
 	
-	protected static Map<Object,Timing> timings = new HashMap<>();
+	protected final static Map<Object, Timing> timings = new HashMap<>();
+	/**
+	 * Self time in nanoseconds per stack path, the frames of the path being separated by semicolons.
+	 */
+	protected final static Map<String, long[]> stacks = new HashMap<>();
 	private static volatile boolean enabled;
 	protected static volatile long enableTime;
 	protected static volatile long disableTime;
 	
-	public static Timing of(Object ref) {
-		Timing timing;
+	public static Timing of(final Object ref, final String name) {
 		synchronized (timings) {
-			if (timings.containsKey(ref)) {
-				timing = timings.get(ref);
-			} else {
-				timing = new Timing();
-				timings.put(ref, timing);
-			}
+			Timing timing = timings.get(ref);
+			if (timing == null)
+				timings.put(ref, timing = new Timing(name));
+			return timing;
 		}
-		
-		assert timing != null;
-		return timing;
 	}
 	
 	public static boolean enabled() {
@@ -65,11 +65,88 @@ public class Timings {
 	public static void disable() {
 		enabled = false;
 		disableTime = System.nanoTime();
-		SkriptEventHandler.removeTiming();
 	}
 	
 	public static void clear() {
-		timings.clear();
+		synchronized (timings) {
+			timings.clear();
+		}
+		synchronized (stacks) {
+			stacks.clear();
+		}
+	}
+	
+	private final static class Frame {
+		final Object key;
+		final String name;
+		final long start;
+		final boolean timed;
+		long children = 0;
+		
+		Frame(final Object key, final String name, final boolean timed) {
+			this.key = key;
+			this.name = name;
+			this.timed = timed;
+			start = System.nanoTime();
+		}
+	}
+	
+	private final static ThreadLocal<ArrayList<Frame>> frames = new ThreadLocal<ArrayList<Frame>>() {
+		@Override
+		protected ArrayList<Frame> initialValue() {
+			return new ArrayList<>();
+		}
+	};
+	
+	/**
+	 * Starts a new frame on the current thread's stack. Must be followed by a call to {@link #stop(Object)} with the same key, even if timings are not enabled.
+	 * 
+	 * @param key The key to record the frame's time at, e.g. a trigger
+	 * @param name The frame's name as used in reports
+	 */
+	public static void start(final Object key, final String name) {
+		frames.get().add(new Frame(key, name.replace(';', ','), enabled));
+	}
+	
+	/**
+	 * Ends the topmost frame of the current thread's stack if it has been started with the given key, and records its time if timings were enabled when the frame was
+	 * started.
+	 * 
+	 * @param key
+	 * @return The time the frame took in nanoseconds, or -1 if the topmost frame doesn't match the given key
+	 */
+	public static long stop(final Object key) {
+		final ArrayList<Frame> stack = frames.get();
+		if (stack.isEmpty() || stack.get(stack.size() - 1).key != key)
+			return -1;
+		final Frame f = stack.remove(stack.size() - 1);
+		final long time = System.nanoTime() - f.start;
+		if (!stack.isEmpty())
+			stack.get(stack.size() - 1).children += time;
+		if (f.timed && enabled) {
+			of(f.key, f.name).record(time);
+			final StringBuilder path = new StringBuilder();
+			for (final Frame parent : stack)
+				path.append(parent.name).append(';');
+			path.append(f.name);
+			synchronized (stacks) {
+				final long[] self = stacks.get(path.toString());
+				if (self == null)
+					stacks.put(path.toString(), new long[] {time - f.children});
+				else
+					self[0] += time - f.children;
+			}
+		}
+		return time;
+	}
+	
+	/**
+	 * @return The key of the topmost frame of the current thread's stack, or null if the stack is empty
+	 */
+	@Nullable
+	public static Object current() {
+		final ArrayList<Frame> stack = frames.get();
+		return stack.isEmpty() ? null : stack.get(stack.size() - 1).key;
 	}
 	
 }
@@ -21,27 +21,167 @@
 
 package ch.njol.skript.util;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
-import ch.njol.util.NullableChecker;
-import ch.njol.util.coll.iterator.CheckedIterator;
+import ch.njol.util.Math2;
 
 /**
+ * Iterates over all blocks whose centre is within a given radius of a location.
+ * <p>
+ * Candidate blocks are taken from the range of x offsets of each y and z offset (which is cached per rounded up radius for small radii, and calculated per row for larger
+ * ones), and are checked with plain arithmetic, so only blocks inside the sphere are ever retrieved from the world.
+ * <p>
+ * A negative radius results in no blocks.
+ * 
  * @author Peter Güttinger
  */
-public class BlockSphereIterator extends CheckedIterator<Block> {
+public class BlockSphereIterator implements Iterator<Block> {
+	
+	/**
+	 * Spans are cached for radii up to this value
+	 */
+	private final static int MAX_CACHED_RADIUS = 64;
+	
+	/**
+	 * Larger radii are reduced to this, which is more than the distance between any two blocks of a world
+	 */
+	private final static int MAX_RADIUS = 1 << 26;
+	
+	private final static int[][] spanCache = new int[MAX_CACHED_RADIUS + 1][];
+	
+	/**
+	 * Returns the spans of all y and z offsets for the given radius, see {@link #getSpan(int, int, int)}. The span of offsets <tt>(y, z)</tt> is at index
+	 * <tt>(y + radius) * (2 * radius + 1) + z + radius</tt>.
+	 * 
+	 * @param radius A radius of at most {@link #MAX_CACHED_RADIUS}
+	 */
+	static int[] getSpans(final int radius) {
+		assert 0 <= radius && radius <= MAX_CACHED_RADIUS : radius;
+		synchronized (spanCache) {
+			final int[] spans = spanCache[radius];
+			if (spans != null)
+				return spans;
+		}
+		final int size = 2 * radius + 1;
+		final int[] spans = new int[size * size];
+		for (int y = -radius; y <= radius; y++) {
+			for (int z = -radius; z <= radius; z++)
+				spans[(y + radius) * size + z + radius] = getSpan(y, z, radius);
+		}
+		synchronized (spanCache) {
+			spanCache[radius] = spans;
+		}
+		return spans;
+	}
+	
+	/**
+	 * Returns the maximum absolute x offset of a block that might be in a sphere of the given radius for the given y and z offset from the block containing the sphere's
+	 * centre, for any position of the centre within that block.
+	 * 
+	 * @return The span of the row, or -1 if no block of that row can be in the sphere
+	 */
+	static int getSpan(final int y, final int z, final int radius) {
+		final double rSquared = (double) radius * radius * Skript.EPSILON_MULT;
+		final double yz = minDistance(y) * minDistance(y) + minDistance(z) * minDistance(z);
+		int x = -1;
+		while (x < radius && yz + minDistance(x + 1) * minDistance(x + 1) < rSquared)
+			x++;
+		return x;
+	}
+	
+	/**
+	 * @return The minimum distance of the centre of the block at the given offset to any point in the block at offset 0 along one axis
+	 */
+	private static double minDistance(final int offset) {
+		return Math.max(0, Math.abs(offset) - 0.5);
+	}
 	
+	private final World world;
+	private final double cx, cy, cz, rSquared;
+	private final int blockX, blockY, blockZ, radius, size, minY, maxY;
+	/**
+	 * The cached spans for the radius, or null if the radius is too large to be cached, in which case the span of each row is calculated when the row is reached
+	 */
+	@Nullable
+	private final int[] spans;
+	
+	// offsets of the next block, valid if hasNext
+	private int x, y, z, maxX;
+	private boolean hasNext;
+	
+	@SuppressWarnings("null")
 	public BlockSphereIterator(final Location center, final double radius) {
-		super(new AABB(center, radius + 0.5001, radius + 0.5001, radius + 0.5001).iterator(), new NullableChecker<Block>() {
-			private final double rSquared = radius * radius * Skript.EPSILON_MULT;
-			
-			@Override
-			public boolean check(final @Nullable Block b) {
-				return b != null && center.distanceSquared(b.getLocation().add(0.5, 0.5, 0.5)) < rSquared;
+		world = center.getWorld();
+		cx = center.getX();
+		cy = center.getY();
+		cz = center.getZ();
+		final double r = Math.min(radius, MAX_RADIUS);
+		rSquared = r * r * Skript.EPSILON_MULT;
+		blockX = center.getBlockX();
+		blockY = center.getBlockY();
+		blockZ = center.getBlockZ();
+		this.radius = Math.max(0, Math2.ceilI(r));
+		size = 2 * this.radius + 1;
+		spans = this.radius <= MAX_CACHED_RADIUS ? getSpans(this.radius) : null;
+		minY = Math.max(-this.radius, -blockY);
+		maxY = Math.min(this.radius, world.getMaxHeight() - 1 - blockY);
+		y = minY;
+		z = -this.radius - 1;
+		x = 0;
+		maxX = -1;
+		hasNext = r >= 0 && minY <= maxY && findNext(); // also false if the radius is NaN
+	}
+	
+	/**
+	 * Moves to the next block in the sphere after the current one.
+	 * 
+	 * @return Whether a block was found
+	 */
+	private boolean findNext() {
+		while (true) {
+			if (++x > maxX) {
+				do {
+					if (++z > radius) {
+						z = -radius;
+						if (++y > maxY)
+							return false;
+					}
+					final int[] spans = this.spans;
+					maxX = spans != null ? spans[(y + radius) * size + z + radius] : getSpan(y, z, radius);
+				} while (maxX == -1);
+				x = -maxX;
 			}
-		});
+			final double dx = blockX + x + 0.5 - cx, dy = blockY + y + 0.5 - cy, dz = blockZ + z + 0.5 - cz;
+			if (dx * dx + dy * dy + dz * dz < rSquared)
+				return true;
+		}
+	}
+	
+	@Override
+	public boolean hasNext() {
+		return hasNext;
 	}
+	
+	@SuppressWarnings("null")
+	@Override
+	public Block next() {
+		if (!hasNext)
+			throw new NoSuchElementException();
+		final Block b = world.getBlockAt(blockX + x, blockY + y, blockZ + z);
+		hasNext = findNext();
+		return b;
+	}
+	
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+	
 }
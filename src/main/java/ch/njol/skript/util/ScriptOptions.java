@@ -33,6 +33,8 @@ public class ScriptOptions {
 	
 	private HashMap<File, Boolean> usesNewLoops = new HashMap<>();
 	
+	private HashMap<File, Integer> continuationPriorities = new HashMap<>();
+	
 	@SuppressWarnings("null")
 	private static ScriptOptions instance = null;
 	
@@ -54,4 +56,23 @@ public class ScriptOptions {
 	public void setUsesNewLoops(File file, boolean b){
 		usesNewLoops.put(file, b);
 	}
+	
+	/**
+	 * @return The priority of the given script's continuations if they have to be deferred because of the tick budget, see {@link TimingWheel}
+	 */
+	public synchronized int getContinuationPriority(File file){
+		Integer priority = continuationPriorities.get(file);
+		return priority != null ? priority : 0;
+	}
+	
+	public synchronized void setContinuationPriority(File file, int priority){
+		if(priority == 0)
+			continuationPriorities.remove(file);
+		else
+			continuationPriorities.put(file, priority);
+	}
+	
+	public synchronized void clearContinuationPriorities(){
+		continuationPriorities.clear();
+	}
 }
@@ -0,0 +1,356 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.classes.Comparator.Relation;
+import ch.njol.skript.registrations.Comparators;
+
+/**
+ * Sorts lists of objects, e.g. for {@link ch.njol.skript.expressions.ExprSortedList}.
+ * <p>
+ * Lists which only contain numbers or strings are sorted without comparing boxed objects: lists of only longs or only doubles are sorted as primitive arrays, and other numbers
+ * (or the keys given to sort a list by) are converted to <tt>long</tt> sort keys, which are then used to sort a permutation of the list's indices. Large arrays are sorted with
+ * {@link Arrays#parallelSort(long[])} and its overloads. All sorts are stable, i.e. equal elements keep their order.
+ */
+public abstract class Sorter {
+	
+	private Sorter() {}
+	
+	/**
+	 * Arrays of at least this size are sorted in parallel
+	 */
+	public final static int PARALLEL_THRESHOLD = 1 << 15;
+	
+	/**
+	 * Ranges of indices up to this size are sorted with an insertion sort
+	 */
+	private final static int INSERTION_THRESHOLD = 16;
+	
+	/**
+	 * Compares objects by their natural order or, if they are not {@link Comparable}, with Skript's {@link Comparators}.
+	 * 
+	 * @throws IllegalArgumentException if two objects cannot be compared
+	 */
+	public final static Comparator<Object> naturalOrder = new Comparator<Object>() {
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		@Override
+		public int compare(final @Nullable Object o1, final @Nullable Object o2) {
+			assert o1 != null && o2 != null;
+			if (o1 instanceof Comparable) {
+				try {
+					return ((Comparable) o1).compareTo(o2);
+				} catch (final ClassCastException e) {}
+			}
+			final Relation r = Comparators.compare(o1, o2);
+			if (r == Relation.NOT_EQUAL)
+				throw new IllegalArgumentException("cannot compare " + o1.getClass().getName() + " with " + o2.getClass().getName());
+			return r.getRelation();
+		}
+	};
+	
+	/**
+	 * Sorts a list of objects, optionally by a list of keys.
+	 * 
+	 * @param values The values to sort. This array is not modified.
+	 * @param keys The keys to sort the values by, with one key for each value, or null to sort the values by themselves
+	 * @param descending Whether to sort from highest to lowest instead of lowest to highest
+	 * @return A new array with the sorted values
+	 * @throws IllegalArgumentException if some values or keys cannot be compared, or if there are not as many keys as values
+	 */
+	public static Object[] sort(final Object[] values, final @Nullable Object[] keys, final boolean descending) {
+		if (keys != null && keys.length != values.length)
+			throw new IllegalArgumentException("there must be as many keys (" + keys.length + ") as values (" + values.length + ")");
+		if (values.length < 2)
+			return values.clone();
+		if (keys == null) {
+			final Object[] sorted = sortPrimitive(values, descending);
+			if (sorted != null)
+				return sorted;
+		}
+		IndexComparator c = getComparator(keys == null ? values : keys, descending);
+		if (c == null && keys != null) {
+			c = new ObjectComparator(keys, descending);
+		} else if (c == null) {
+			final Object[] sorted = values.clone();
+			final Comparator<Object> order = descending ? Collections.reverseOrder(naturalOrder) : naturalOrder;
+			if (sorted.length >= PARALLEL_THRESHOLD)
+				Arrays.parallelSort(sorted, order);
+			else
+				Arrays.sort(sorted, order);
+			return sorted;
+		}
+		final int[] indices = new int[values.length];
+		for (int i = 0; i < indices.length; i++)
+			indices[i] = i;
+		mergeSort(indices, new int[indices.length], 0, indices.length, c);
+		return permute(values, indices);
+	}
+	
+	/**
+	 * Finds the first few values of a list if it were sorted, using a bounded heap instead of sorting the whole list.
+	 * 
+	 * @param values The values to choose from. This array is not modified.
+	 * @param keys The keys to sort the values by, with one key for each value, or null to sort the values by themselves
+	 * @param amount How many values to return
+	 * @param descending Whether to find the highest values instead of the lowest ones
+	 * @return A new array with at most <tt>amount</tt> sorted values, equal to the beginning of {@link #sort(Object[], Object[], boolean)}
+	 * @throws IllegalArgumentException if some values or keys cannot be compared, or if there are not as many keys as values
+	 */
+	public static Object[] top(final Object[] values, final @Nullable Object[] keys, final int amount, final boolean descending) {
+		if (amount <= 0)
+			return new Object[0];
+		if (amount >= values.length)
+			return sort(values, keys, descending);
+		if (keys != null && keys.length != values.length)
+			throw new IllegalArgumentException("there must be as many keys (" + keys.length + ") as values (" + values.length + ")");
+		IndexComparator c = getComparator(keys == null ? values : keys, descending);
+		if (c == null)
+			c = new ObjectComparator(keys == null ? values : keys, descending);
+		
+		// max-heap of the best values found so far, i.e. the root is the worst of them and is replaced by any better value
+		final int[] heap = new int[amount];
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (size < amount) {
+				int child = size++;
+				while (child > 0) {
+					final int parent = (child - 1) >>> 1;
+					if (worse(heap[parent], i, c))
+						break;
+					heap[child] = heap[parent];
+					child = parent;
+				}
+				heap[child] = i;
+			} else if (c.compare(i, heap[0]) < 0) {
+				siftDown(heap, size, i, c);
+			}
+		}
+		
+		// remove the worst value until the heap is empty
+		final Object[] r = new Object[amount];
+		while (size > 0) {
+			final int worst = heap[0];
+			r[--size] = values[worst];
+			if (size > 0)
+				siftDown(heap, size, heap[size], c);
+		}
+		return r;
+	}
+	
+	/**
+	 * Places <tt>index</tt> at the root of the heap and moves it down until the heap is valid again
+	 */
+	private static void siftDown(final int[] heap, final int size, final int index, final IndexComparator c) {
+		int parent = 0;
+		while (true) {
+			int child = 2 * parent + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && worse(heap[child + 1], heap[child], c))
+				child++;
+			if (!worse(heap[child], index, c))
+				break;
+			heap[parent] = heap[child];
+			parent = child;
+		}
+		heap[parent] = index;
+	}
+	
+	/**
+	 * @return Whether the value at index <tt>i</tt> comes after the one at index <tt>j</tt> in a stable sort
+	 */
+	private static boolean worse(final int i, final int j, final IndexComparator c) {
+		final int r = c.compare(i, j);
+		return r > 0 || r == 0 && i > j;
+	}
+	
+	/**
+	 * Sorts lists which only contain longs, doubles, or strings, whose order is the same for equal elements as these are interchangeable.
+	 * 
+	 * @return The sorted values or null if the values are not of one of these types
+	 */
+	@Nullable
+	private static Object[] sortPrimitive(final Object[] values, final boolean descending) {
+		final Class<?> type = values[0].getClass();
+		if (type != Long.class && type != Double.class && type != String.class)
+			return null;
+		for (final Object o : values) {
+			if (o.getClass() != type)
+				return null;
+		}
+		final boolean parallel = values.length >= PARALLEL_THRESHOLD;
+		final Object[] r;
+		if (type == Long.class) {
+			final long[] a = new long[values.length];
+			for (int i = 0; i < a.length; i++)
+				a[i] = ((Long) values[i]).longValue();
+			if (parallel)
+				Arrays.parallelSort(a);
+			else
+				Arrays.sort(a);
+			r = new Object[a.length];
+			for (int i = 0; i < a.length; i++)
+				r[i] = Long.valueOf(a[i]);
+		} else if (type == Double.class) {
+			final double[] a = new double[values.length];
+			for (int i = 0; i < a.length; i++)
+				a[i] = ((Double) values[i]).doubleValue();
+			if (parallel)
+				Arrays.parallelSort(a);
+			else
+				Arrays.sort(a);
+			r = new Object[a.length];
+			for (int i = 0; i < a.length; i++)
+				r[i] = Double.valueOf(a[i]);
+		} else {
+			final String[] a = Arrays.copyOf(values, values.length, String[].class);
+			if (parallel)
+				Arrays.parallelSort(a);
+			else
+				Arrays.sort(a);
+			r = Arrays.copyOf(a, a.length, Object[].class);
+		}
+		if (descending)
+			Collections.reverse(Arrays.asList(r));
+		return r;
+	}
+	
+	/**
+	 * @return A comparator of indices using <tt>long</tt> sort keys if all keys are numbers, or null if not
+	 */
+	@Nullable
+	private static IndexComparator getComparator(final Object[] keys, final boolean descending) {
+		boolean integral = true;
+		for (final Object o : keys) {
+			if (!(o instanceof Number))
+				return null;
+			if (!(o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte))
+				integral = false;
+		}
+		final long[] sortKeys = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			final Number n = (Number) keys[i];
+			sortKeys[i] = integral ? n.longValue() : sortableBits(n.doubleValue());
+		}
+		return new LongComparator(sortKeys, descending);
+	}
+	
+	/**
+	 * Converts a double to a long whose natural order is the same as the order of {@link Double#compare(double, double)}.
+	 */
+	static long sortableBits(final double d) {
+		final long bits = Double.doubleToLongBits(d);
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+	
+	private static Object[] permute(final Object[] values, final int[] indices) {
+		final Object[] r = new Object[indices.length];
+		for (int i = 0; i < indices.length; i++)
+			r[i] = values[indices[i]];
+		return r;
+	}
+	
+	/**
+	 * A stable merge sort of the range [<tt>from</tt>, <tt>to</tt>) of <tt>indices</tt>.
+	 * 
+	 * @param temp An array at least as long as <tt>indices</tt>
+	 */
+	private static void mergeSort(final int[] indices, final int[] temp, final int from, final int to, final IndexComparator c) {
+		if (to - from <= INSERTION_THRESHOLD) {
+			for (int i = from + 1; i < to; i++) {
+				final int index = indices[i];
+				int j = i - 1;
+				while (j >= from && c.compare(indices[j], index) > 0) {
+					indices[j + 1] = indices[j];
+					j--;
+				}
+				indices[j + 1] = index;
+			}
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		mergeSort(indices, temp, from, middle, c);
+		mergeSort(indices, temp, middle, to, c);
+		if (c.compare(indices[middle - 1], indices[middle]) <= 0)
+			return; // already in order
+		System.arraycopy(indices, from, temp, from, to - from);
+		int i = from, j = middle, k = from;
+		while (i < middle && j < to) {
+			if (c.compare(temp[j], temp[i]) < 0)
+				indices[k++] = temp[j++];
+			else
+				indices[k++] = temp[i++];
+		}
+		while (i < middle)
+			indices[k++] = temp[i++];
+		while (j < to)
+			indices[k++] = temp[j++];
+	}
+	
+	private static abstract class IndexComparator {
+		protected final boolean descending;
+		
+		protected IndexComparator(final boolean descending) {
+			this.descending = descending;
+		}
+		
+		/**
+		 * Compares the values at the given indices in the order the values are sorted in, i.e. reversed if sorting descending.
+		 */
+		public abstract int compare(int i, int j);
+	}
+	
+	private final static class LongComparator extends IndexComparator {
+		private final long[] keys;
+		
+		public LongComparator(final long[] keys, final boolean descending) {
+			super(descending);
+			this.keys = keys;
+		}
+		
+		@Override
+		public int compare(final int i, final int j) {
+			return descending ? Long.compare(keys[j], keys[i]) : Long.compare(keys[i], keys[j]);
+		}
+	}
+	
+	private final static class ObjectComparator extends IndexComparator {
+		private final Object[] keys;
+		
+		public ObjectComparator(final Object[] keys, final boolean descending) {
+			super(descending);
+			this.keys = keys;
+		}
+		
+		@Override
+		public int compare(final int i, final int j) {
+			return descending ? naturalOrder.compare(keys[j], keys[i]) : naturalOrder.compare(keys[i], keys[j]);
+		}
+	}
+	
+}
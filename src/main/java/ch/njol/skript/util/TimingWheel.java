@@ -0,0 +1,496 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+
+package ch.njol.skript.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+
+/**
+ * A hierarchical timing wheel which runs delayed and repeating tasks on Bukkit's main thread, e.g. the continuations of delays and periodical events.
+ * <p>
+ * All tasks are driven by a single repeating Bukkit task, which is only scheduled while there are pending tasks and runs all tasks that are due in a tick at once. Tasks are
+ * sorted into slots by the tick they are due: the first level of the wheel has one slot for each of the next 256 ticks, and each further level has 64 slots which each span
+ * all slots of the level below. Whenever the slots of a level have been passed, the next slot of the level above is distributed into it. Thus scheduling and cancelling a
+ * task takes constant time irrespective of the number of pending tasks.
+ * <p>
+ * If a {@link #setTickBudget(long) tick budget} is set, tasks that would exceed it are deferred to the next tick. Deferred tasks are run before the tasks that become due in
+ * the next tick, tasks with a higher {@link ScriptOptions#getContinuationPriority(File) priority} first, and in the order they became due otherwise.
+ * <p>
+ * Tasks can be scheduled from any thread.
+ */
+public final class TimingWheel {
+	
+	private TimingWheel() {
+		throw new UnsupportedOperationException();
+	}
+	
+	private final static int ROOT_BITS = 8, LEVEL_BITS = 6, LEVELS = 4;
+	private final static int ROOT_SIZE = 1 << ROOT_BITS, LEVEL_SIZE = 1 << LEVEL_BITS;
+	/**
+	 * Longer delays are shortened to this, which is about 6.8 years.
+	 */
+	private final static long MAX_DELAY = (1L << (ROOT_BITS + LEVELS * LEVEL_BITS)) - 1;
+	
+	/**
+	 * A task scheduled in the timing wheel.
+	 */
+	public final static class Entry {
+		
+		final Runnable task;
+		final long period;
+		@Nullable
+		final File script;
+		/**
+		 * Updated whenever a repeating entry is rescheduled, as a script's priority may be set after its periodical events have been registered
+		 */
+		int priority;
+		
+		long due;
+		/**
+		 * The entry's slot as <tt>level << 8 | index</tt>, or -1 if the entry is not in the wheel
+		 */
+		int slot = -1;
+		@Nullable
+		Entry prev, next;
+		/**
+		 * The order in which entries have been scheduled
+		 */
+		long sequence;
+		volatile boolean cancelled = false;
+		
+		Entry(final Runnable task, final long period, final @Nullable File script) {
+			this.task = task;
+			this.period = period;
+			this.script = script;
+			priority = getPriority(script);
+		}
+		
+		/**
+		 * Cancels this task. If the task is currently running it will finish, but won't be run again.
+		 */
+		public void cancel() {
+			TimingWheel.cancel(this);
+		}
+		
+		public boolean isCancelled() {
+			return cancelled;
+		}
+		
+	}
+	
+	private final static Entry[][] wheel = new Entry[LEVELS + 1][];
+	static {
+		wheel[0] = new Entry[ROOT_SIZE];
+		for (int l = 1; l <= LEVELS; l++)
+			wheel[l] = new Entry[LEVEL_SIZE];
+	}
+	
+	/**
+	 * The next tick to be processed
+	 */
+	private static long tick = 0;
+	private static int pending = 0;
+	private static volatile int lastTickCount = 0;
+	
+	private static int taskID = -1;
+	
+	/**
+	 * The tasks of the tick that is currently being processed. Only modified by the main thread while running the tasks of a tick, and only while synchronised.
+	 */
+	private final static ArrayList<Entry> due = new ArrayList<>();
+	
+	private static volatile long tickBudget = 0;
+	private static long sequence = 0;
+	/**
+	 * Orders tasks by priority, then by the tick they became due, and finally by the order they were scheduled in
+	 */
+	private final static Comparator<Entry> order = new Comparator<Entry>() {
+		@Override
+		public int compare(final @Nullable Entry e1, final @Nullable Entry e2) {
+			assert e1 != null && e2 != null;
+			if (e1.priority != e2.priority)
+				return e1.priority > e2.priority ? -1 : 1;
+			if (e1.due != e2.due)
+				return e1.due < e2.due ? -1 : 1;
+			return e1.sequence < e2.sequence ? -1 : e1.sequence == e2.sequence ? 0 : 1;
+		}
+	};
+	private final static PriorityQueue<Entry> backlog = new PriorityQueue<>(16, order);
+	private static volatile long exceededTicks = 0;
+	
+	private final static Runnable driver = new Runnable() {
+		@Override
+		public void run() {
+			runTick();
+		}
+	};
+	
+	/**
+	 * Schedules a task to be run once.
+	 * 
+	 * @param task
+	 * @param delay The delay in ticks. Values less than 1 will run the task in the next tick.
+	 * @param script The script which scheduled this task, used to cancel the task when the script is unloaded, or null if the task doesn't belong to a script
+	 * @return The scheduled task
+	 */
+	public static Entry schedule(final Runnable task, final long delay, final @Nullable File script) {
+		return schedule(task, delay, 0, script);
+	}
+	
+	/**
+	 * Schedules a task to be run repeatedly until it is cancelled.
+	 * 
+	 * @param task
+	 * @param delay The delay in ticks before the first run. Values less than 1 will run the task in the next tick.
+	 * @param period The period in ticks, must be positive
+	 * @param script The script which scheduled this task, used to cancel the task when the script is unloaded, or null if the task doesn't belong to a script
+	 * @return The scheduled task
+	 */
+	public static Entry scheduleRepeating(final Runnable task, final long delay, final long period, final @Nullable File script) {
+		assert period > 0;
+		return schedule(task, delay, period, script);
+	}
+	
+	private synchronized static Entry schedule(final Runnable task, final long delay, final long period, final @Nullable File script) {
+		final Entry e = new Entry(task, period, script);
+		e.due = tick - 1 + Math.min(Math.max(delay, 1), MAX_DELAY);
+		e.sequence = sequence++;
+		insert(e);
+		if (taskID == -1)
+			taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), driver, 1, 1);
+		return e;
+	}
+	
+	synchronized static void cancel(final Entry e) {
+		e.cancelled = true;
+		if (e.slot != -1)
+			remove(e);
+	}
+	
+	/**
+	 * Cancels all tasks which belong to the given script, including tasks of the current tick which have not been run yet.
+	 * 
+	 * @param script
+	 */
+	public synchronized static void cancel(final File script) {
+		for (final Entry[] level : wheel) {
+			for (Entry e : level) {
+				while (e != null) {
+					final Entry next = e.next;
+					if (script.equals(e.script)) {
+						e.cancelled = true;
+						remove(e);
+					}
+					e = next;
+				}
+			}
+		}
+		final Iterator<Entry> iter = backlog.iterator();
+		while (iter.hasNext()) {
+			final Entry e = iter.next();
+			if (script.equals(e.script)) {
+				e.cancelled = true;
+				iter.remove();
+			}
+		}
+		for (final Entry e : due) {
+			if (script.equals(e.script))
+				e.cancelled = true;
+		}
+	}
+	
+	/**
+	 * Cancels all tasks which belong to any script, including tasks of the current tick which have not been run yet.
+	 */
+	public synchronized static void cancelScripts() {
+		for (final Entry[] level : wheel) {
+			for (Entry e : level) {
+				while (e != null) {
+					final Entry next = e.next;
+					if (e.script != null) {
+						e.cancelled = true;
+						remove(e);
+					}
+					e = next;
+				}
+			}
+		}
+		final Iterator<Entry> iter = backlog.iterator();
+		while (iter.hasNext()) {
+			final Entry e = iter.next();
+			if (e.script != null) {
+				e.cancelled = true;
+				iter.remove();
+			}
+		}
+		for (final Entry e : due) {
+			if (e.script != null)
+				e.cancelled = true;
+		}
+	}
+	
+	/**
+	 * Cancels all tasks and stops the timing wheel.
+	 */
+	public synchronized static void cancelAll() {
+		for (final Entry[] level : wheel) {
+			for (int i = 0; i < level.length; i++) {
+				Entry e = level[i];
+				while (e != null) {
+					e.cancelled = true;
+					e.slot = -1;
+					e.prev = null;
+					final Entry next = e.next;
+					e.next = null;
+					e = next;
+				}
+				level[i] = null;
+			}
+		}
+		pending = 0;
+		for (final Entry e : backlog)
+			e.cancelled = true;
+		backlog.clear();
+		for (final Entry e : due)
+			e.cancelled = true;
+		if (taskID != -1) {
+			Bukkit.getScheduler().cancelTask(taskID);
+			taskID = -1;
+		}
+	}
+	
+	/**
+	 * Sets the maximum time to spend running tasks in a single tick. Once it is exceeded the remaining tasks of the tick are deferred to the next tick. At least one task is
+	 * run per tick regardless of the budget.
+	 * 
+	 * @param nanos The budget in nanoseconds, or 0 to run all tasks when they are due
+	 */
+	public static void setTickBudget(final long nanos) {
+		assert nanos >= 0;
+		tickBudget = nanos;
+	}
+	
+	/**
+	 * @return The number of tasks currently waiting in the timing wheel, not including {@link #getBacklog() deferred} tasks
+	 */
+	public synchronized static int getPending() {
+		return pending;
+	}
+	
+	/**
+	 * @return The number of tasks that are overdue as they have been deferred because of the {@link #setTickBudget(long) tick budget}
+	 */
+	public synchronized static int getBacklog() {
+		return backlog.size();
+	}
+	
+	/**
+	 * @return The number of ticks in which the {@link #setTickBudget(long) tick budget} was exceeded, i.e. in which tasks had to be deferred
+	 */
+	public static long getExceededTicks() {
+		return exceededTicks;
+	}
+	
+	/**
+	 * @return The number of tasks that were run in the last tick
+	 */
+	public static int getLastTickCount() {
+		return lastTickCount;
+	}
+	
+	/**
+	 * Must be synchronised.
+	 */
+	private static void insert(final Entry e) {
+		final long delta = e.due - tick;
+		final int level, index;
+		if (delta < ROOT_SIZE) {
+			level = 0;
+			index = (int) ((delta < 0 ? tick : e.due) & (ROOT_SIZE - 1));
+		} else {
+			int l = 1;
+			while (l < LEVELS && delta >= 1L << (ROOT_BITS + l * LEVEL_BITS))
+				l++;
+			level = l;
+			index = (int) (e.due >>> (ROOT_BITS + (l - 1) * LEVEL_BITS)) & (LEVEL_SIZE - 1);
+		}
+		final Entry head = wheel[level][index];
+		e.slot = level << ROOT_BITS | index;
+		e.prev = null;
+		e.next = head;
+		if (head != null)
+			head.prev = e;
+		wheel[level][index] = e;
+		pending++;
+	}
+	
+	/**
+	 * Must be synchronised.
+	 */
+	private static void remove(final Entry e) {
+		final Entry prev = e.prev, next = e.next;
+		if (prev == null)
+			wheel[e.slot >>> ROOT_BITS][e.slot & (ROOT_SIZE - 1)] = next;
+		else
+			prev.next = next;
+		if (next != null)
+			next.prev = prev;
+		e.slot = -1;
+		e.prev = e.next = null;
+		pending--;
+	}
+	
+	/**
+	 * Removes all entries from a slot and returns them as a linked list. Must be synchronised.
+	 */
+	@Nullable
+	private static Entry detach(final int level, final int index) {
+		final Entry head = wheel[level][index];
+		wheel[level][index] = null;
+		for (Entry e = head; e != null; e = e.next) {
+			e.slot = -1;
+			pending--;
+		}
+		return head;
+	}
+	
+	/**
+	 * Puts a repeating entry back into the wheel after it has been run. Must be synchronised.
+	 * 
+	 * @param current The tick that is being processed
+	 */
+	private static void reschedule(final Entry e, final long current) {
+		if (e.period > 0 && !e.cancelled && e.slot == -1) {
+			e.due = Math.max(e.due, current) + e.period;
+			e.sequence = sequence++;
+			e.priority = getPriority(e.script);
+			insert(e);
+		}
+	}
+	
+	static int getPriority(final @Nullable File script) {
+		return script == null ? 0 : ScriptOptions.getInstance().getContinuationPriority(script);
+	}
+	
+	private static boolean run(final Entry e) {
+		if (e.cancelled)
+			return false;
+		try {
+			e.task.run();
+		} catch (final Exception ex) {
+			Skript.exception(ex, "Error while running a scheduled task (" + e.task + ")");
+		}
+		return true;
+	}
+	
+	/**
+	 * Runs the tasks of the next tick. Called by the repeating Bukkit task every tick.
+	 */
+	static void runTick() {
+		final long current;
+		final long budget = tickBudget;
+		final boolean deferring;
+		synchronized (TimingWheel.class) {
+			current = tick;
+			final int index = (int) (current & (ROOT_SIZE - 1));
+			if (index == 0) {
+				for (int l = 1; l <= LEVELS; l++) {
+					final int i = (int) (current >>> (ROOT_BITS + (l - 1) * LEVEL_BITS)) & (LEVEL_SIZE - 1);
+					Entry e = detach(l, i);
+					while (e != null) {
+						final Entry next = e.next;
+						insert(e);
+						e = next;
+					}
+					if (i != 0)
+						break;
+				}
+			}
+			// deferred tasks have to be run first, thus all due tasks are added to the backlog as long as it is not empty
+			deferring = budget > 0 || !backlog.isEmpty();
+			Entry e = detach(0, index);
+			while (e != null) {
+				final Entry next = e.next;
+				e.prev = e.next = null;
+				if (deferring) {
+					backlog.add(e);
+				} else {
+					due.add(e);
+				}
+				e = next;
+			}
+			tick++;
+			Collections.sort(due, order);
+		}
+		
+		int count = 0;
+		try {
+			if (!deferring) {
+				for (final Entry e : due) {
+					if (run(e))
+						count++;
+				}
+			} else {
+				final long start = System.nanoTime();
+				while (true) {
+					final Entry e;
+					synchronized (TimingWheel.class) {
+						if (backlog.isEmpty())
+							break;
+						if (budget > 0 && count > 0 && System.nanoTime() - start >= budget) {
+							exceededTicks++;
+							break;
+						}
+						e = backlog.poll();
+					}
+					if (run(e))
+						count++;
+					synchronized (TimingWheel.class) {
+						reschedule(e, current);
+					}
+				}
+			}
+		} finally {
+			lastTickCount = count;
+			synchronized (TimingWheel.class) {
+				for (final Entry e : due)
+					reschedule(e, current);
+				due.clear();
+				if (pending == 0 && backlog.isEmpty() && taskID != -1) {
+					Bukkit.getScheduler().cancelTask(taskID);
+					taskID = -1;
+				}
+			}
+		}
+	}
+	
+}
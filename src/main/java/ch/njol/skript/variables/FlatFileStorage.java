@@ -22,6 +22,7 @@
 package ch.njol.skript.variables;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -32,6 +33,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -291,6 +293,39 @@ public class FlatFileStorage extends VariablesStorage {
 		return true;
 	}
 	
+	/**
+	 * Writes all changes at once and flushes the writer only once per batch. Batches taken from the queue before the file was rewritten are discarded, as they are older than
+	 * the rewritten file.
+	 */
+	@SuppressWarnings("resource")
+	@Override
+	protected void save(final List<SerializedVariable> batch) {
+		synchronized (connectionLock) {
+			if (isBatchCleared())
+				return;
+			synchronized (changesWriter) {
+				PrintWriter cw;
+				while ((cw = changesWriter.get()) == null) {
+					try {
+						changesWriter.wait();
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				int written = 0;
+				for (final SerializedVariable var : batch) {
+					final SerializedVariable.Value value = var.value;
+					if (!loaded && value == null)
+						continue; // see save(String, String, byte[])
+					writeCSV(cw, var.name, value == null ? null : value.type, value == null ? "" : encode(value.data));
+					written++;
+				}
+				cw.flush();
+				changes.addAndGet(written);
+			}
+		}
+	}
+	
 	/**
 	 * Use with find()
 	 */
@@ -333,7 +368,7 @@ public class FlatFileStorage extends VariablesStorage {
 				if (changesWriter.get() != null)
 					return true;
 				try {
-					changesWriter.set(new PrintWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF_8)));
+					changesWriter.set(new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF_8))));
 					loaded = true;
 					return true;
 				} catch (final FileNotFoundException e) {
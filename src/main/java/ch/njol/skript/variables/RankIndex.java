@@ -0,0 +1,249 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.variables;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * An index of the numerical values of a list variable, ordered by value. It is kept up to date by {@link VariablesMap} and allows to find the rank of a list's element or the
+ * highest or lowest elements of the list in logarithmic time.
+ * <p>
+ * The index is a treap (a binary search tree balanced by random priorities) whose nodes also store the size of their subtree.
+ * <p>
+ * Not thread-safe, global variables' indices must only be used while holding the variables lock.
+ */
+final class RankIndex {
+	
+	private final static Random random = new Random();
+	
+	private final static class Node {
+		final String index;
+		final Number value;
+		final int priority = random.nextInt();
+		int size = 1;
+		@Nullable
+		Node left, right;
+		
+		Node(final String index, final Number value) {
+			this.index = index;
+			this.value = value;
+		}
+		
+		void update() {
+			size = 1 + size(left) + size(right);
+		}
+	}
+	
+	@Nullable
+	private Node root;
+	
+	private final Map<String, Node> nodes = new HashMap<String, Node>();
+	
+	/**
+	 * Indices of the list's elements which are not numbers and are thus not in the index
+	 */
+	private final Set<String> others = new HashSet<String>();
+	
+	private static int size(final @Nullable Node n) {
+		return n == null ? 0 : n.size;
+	}
+	
+	static int compare(final Number n1, final Number n2) {
+		if (n1 instanceof Long && n2 instanceof Long)
+			return Long.compare(n1.longValue(), n2.longValue());
+		return Double.compare(n1.doubleValue(), n2.doubleValue());
+	}
+	
+	/**
+	 * Orders nodes by value, and nodes with equal values by the order of their indices in the list
+	 */
+	private static int compare(final Node n1, final Node n2) {
+		final int c = compare(n1.value, n2.value);
+		return c != 0 ? c : VariablesMap.variableNameComparator.compare(n1.index, n2.index);
+	}
+	
+	/**
+	 * Sets or deletes an element of the list.
+	 * 
+	 * @param index The element's index in the list
+	 * @param value The new value of the element, or null if it was deleted
+	 */
+	void set(final String index, final @Nullable Object value) {
+		final Node old = nodes.remove(index);
+		if (old != null)
+			root = remove(root, old);
+		else
+			others.remove(index);
+		if (value instanceof Number) {
+			final Node n = new Node(index, (Number) value);
+			nodes.put(index, n);
+			root = insert(root, n);
+		} else if (value != null) {
+			others.add(index);
+		}
+	}
+	
+	void clear() {
+		root = null;
+		nodes.clear();
+		others.clear();
+	}
+	
+	/**
+	 * @return Whether all elements of the list are numbers, i.e. the index contains the whole list
+	 */
+	boolean isComplete() {
+		return others.isEmpty();
+	}
+	
+	int size() {
+		return nodes.size();
+	}
+	
+	private static Node insert(final @Nullable Node t, final Node n) {
+		if (t == null)
+			return n;
+		if (n.priority > t.priority) {
+			final Node[] split = split(t, n);
+			n.left = split[0];
+			n.right = split[1];
+			n.update();
+			return n;
+		}
+		if (compare(n, t) < 0)
+			t.left = insert(t.left, n);
+		else
+			t.right = insert(t.right, n);
+		t.update();
+		return t;
+	}
+	
+	/**
+	 * Splits a tree into the nodes smaller than <tt>n</tt> and the nodes greater than <tt>n</tt>. <tt>n</tt> itself must not be in the tree.
+	 */
+	private static Node[] split(final @Nullable Node t, final Node n) {
+		if (t == null)
+			return new Node[2];
+		if (compare(t, n) < 0) {
+			final Node[] split = split(t.right, n);
+			t.right = split[0];
+			t.update();
+			split[0] = t;
+			return split;
+		} else {
+			final Node[] split = split(t.left, n);
+			t.left = split[1];
+			t.update();
+			split[1] = t;
+			return split;
+		}
+	}
+	
+	@Nullable
+	private static Node remove(final @Nullable Node t, final Node n) {
+		if (t == null) {
+			assert false;
+			return null;
+		}
+		if (t == n)
+			return merge(t.left, t.right);
+		if (compare(n, t) < 0)
+			t.left = remove(t.left, n);
+		else
+			t.right = remove(t.right, n);
+		t.update();
+		return t;
+	}
+	
+	/**
+	 * Merges two trees where all nodes of <tt>left</tt> are smaller than all nodes of <tt>right</tt>.
+	 */
+	@Nullable
+	private static Node merge(final @Nullable Node left, final @Nullable Node right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			left.update();
+			return left;
+		} else {
+			right.left = merge(left, right.left);
+			right.update();
+			return right;
+		}
+	}
+	
+	/**
+	 * @param index The index of an element of the list
+	 * @return The rank of the element in the list, where the element with the highest value has rank 1 and equal values share the same rank, or -1 if the element is not in the
+	 *         index
+	 */
+	int getRank(final String index) {
+		final Node n = nodes.get(index);
+		if (n == null)
+			return -1;
+		int greater = 0;
+		Node t = root;
+		while (t != null) {
+			if (compare(t.value, n.value) > 0) {
+				greater += 1 + size(t.right);
+				t = t.left;
+			} else {
+				t = t.right;
+			}
+		}
+		return greater + 1;
+	}
+	
+	/**
+	 * @param amount The maximum number of values to return
+	 * @param descending Whether to return the highest values (in descending order) or the lowest values (in ascending order)
+	 * @return The highest or lowest values of the list
+	 */
+	Object[] getTop(final int amount, final boolean descending) {
+		final Object[] r = new Object[Math.max(0, Math.min(amount, nodes.size()))];
+		final List<Node> stack = new ArrayList<Node>();
+		Node t = root;
+		int i = 0;
+		while (i < r.length) {
+			while (t != null) {
+				stack.add(t);
+				t = descending ? t.right : t.left;
+			}
+			final Node n = stack.remove(stack.size() - 1);
+			r[i++] = n.value;
+			t = descending ? n.left : n.right;
+		}
+		return r;
+	}
+	
+}
@@ -22,9 +22,11 @@
 package ch.njol.skript.variables;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
@@ -107,6 +109,14 @@ public abstract class Variables {
 	
 	static List<VariablesStorage> storages = new ArrayList<VariablesStorage>();
 	
+	/**
+	 * @return The databases variables are saved to, e.g. to query their {@link VariablesStorage#getQueueDepth() statistics}
+	 */
+	@SuppressWarnings("null")
+	public static List<VariablesStorage> getStorages() {
+		return Collections.unmodifiableList(storages);
+	}
+	
 	public static boolean load() {
 		assert variables.treeMap.isEmpty();
 		assert variables.hashMap.isEmpty();
@@ -240,9 +250,84 @@ public abstract class Variables {
 	 */
 	private final static VariablesMap variables = new VariablesMap();
 	/**
-	 * Not accessed concurrently
+	 * Must be synchronised, as triggers of asynchronous events may access it from other threads. Each event's map is only used by the thread running the event's triggers.
 	 */
 	private final static WeakHashMap<Event, VariablesMap> localVariables = new WeakHashMap<Event, VariablesMap>();
+	/**
+	 * A copy of an event's local variables used by another thread, which records all changes made to it so that they can be applied to the event's actual local variables
+	 * afterwards.
+	 */
+	private final static class LocalVariablesCopy {
+		final Event event;
+		final VariablesMap map;
+		final List<String> changedNames = new ArrayList<String>();
+		final List<Object> changedValues = new ArrayList<Object>();
+		
+		LocalVariablesCopy(final Event event, final VariablesMap map) {
+			this.event = event;
+			this.map = map;
+		}
+	}
+	
+	/**
+	 * Local variables which the current thread uses instead of the ones in {@link #localVariables} for the given event
+	 */
+	private final static ThreadLocal<LocalVariablesCopy> threadLocalVariables = new ThreadLocal<>();
+	
+	@Nullable
+	private final static VariablesMap getLocalVariables(final @Nullable Event e, final boolean create) {
+		final LocalVariablesCopy override = threadLocalVariables.get();
+		if (override != null && override.event == e)
+			return override.map;
+		synchronized (localVariables) {
+			VariablesMap map = localVariables.get(e);
+			if (map == null && create)
+				localVariables.put(e, map = new VariablesMap());
+			return map;
+		}
+	}
+	
+	/**
+	 * Copies the local variables of an event, e.g. to use them on another thread with {@link #setThreadLocalVariables(Object)} without affecting the event's other triggers.
+	 * 
+	 * @param e
+	 * @return A copy of the event's local variables, which should be treated as an opaque value
+	 */
+	public final static Object copyLocalVariables(final Event e) {
+		final VariablesMap map = getLocalVariables(e, false);
+		return new LocalVariablesCopy(e, map == null ? new VariablesMap() : map.copy());
+	}
+	
+	/**
+	 * Makes the current thread use the given copy of an event's local variables until this method is called again.
+	 * 
+	 * @param locals A value returned by {@link #copyLocalVariables(Event)}, or null to use the events' own local variables again
+	 */
+	public final static void setThreadLocalVariables(final @Nullable Object locals) {
+		if (locals == null)
+			threadLocalVariables.remove();
+		else
+			threadLocalVariables.set((LocalVariablesCopy) locals);
+	}
+	
+	/**
+	 * Applies the changes made to a copy of an event's local variables to the event's actual local variables. Local variables which have not been changed in the copy keep their
+	 * current values, even if they have been changed by other triggers of the event in the meantime.
+	 * 
+	 * @param locals A value returned by {@link #copyLocalVariables(Event)} which is not used by any thread anymore
+	 */
+	public final static void mergeLocalVariables(final Object locals) {
+		final LocalVariablesCopy copy = (LocalVariablesCopy) locals;
+		if (copy.changedNames.isEmpty())
+			return;
+		final VariablesMap map = getLocalVariables(copy.event, true);
+		assert map != null;
+		for (int i = 0; i < copy.changedNames.size(); i++) {
+			final String name = copy.changedNames.get(i);
+			assert name != null;
+			map.setVariable(name, copy.changedValues.get(i));
+		}
+	}
 	
 	/**
 	 * Remember to lock with {@link #getReadLock()} and to not make any changes!
@@ -275,7 +360,7 @@ public abstract class Variables {
 	@Nullable
 	public final static Object getVariable(final String name, final @Nullable Event e, final boolean local) {
 		if (local) {
-			final VariablesMap map = localVariables.get(e);
+			final VariablesMap map = getLocalVariables(e, false);
 			if (map == null)
 				return null;
 			return map.getVariable(name);
@@ -308,15 +393,121 @@ public abstract class Variables {
 		}
 		if (local) {
 			assert e != null : name;
-			VariablesMap map = localVariables.get(e);
-			if (map == null)
-				localVariables.put(e, map = new VariablesMap());
+			final LocalVariablesCopy override = threadLocalVariables.get();
+			if (override != null && override.event == e) {
+				override.changedNames.add(name);
+				override.changedValues.add(value);
+			}
+			final VariablesMap map = getLocalVariables(e, true);
+			assert map != null;
 			map.setVariable(name, value);
 		} else {
 			setVariable(name, value);
 		}
 	}
 	
+	/**
+	 * Finds the first unused numerical index of a list variable, as used when adding values to the list.
+	 * 
+	 * @param list The value of a list variable as returned by {@link #getVariable(String, Event, boolean)}
+	 * @param start The index to start searching from
+	 * @return The first index of at least <tt>start</tt> which is not used in the given list
+	 */
+	public final static int getFreeListIndex(final Map<String, Object> list, final int start) {
+		if (list instanceof VariablesMap.ListNode)
+			return ((VariablesMap.ListNode) list).getFreeIndex(start);
+		int i = start;
+		while (list.containsKey("" + i))
+			i++;
+		return i;
+	}
+	
+	/**
+	 * Sets which global list variables have a rank index, which is kept up to date whenever the lists change and is used by {@link #getRank(String, String, Event, boolean)}
+	 * and {@link #getTop(String, int, boolean)}.
+	 * 
+	 * @param lists The names of the lists, without the trailing '::*'
+	 */
+	public final static void setIndexedLists(final Collection<String> lists) {
+		final List<String> names = new ArrayList<String>(lists.size());
+		for (final String list : lists)
+			names.add(list.toLowerCase(Locale.ENGLISH));
+		variablesLock.writeLock().lock();
+		try {
+			variables.setRankIndices(names);
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Finds the rank of an element of a list variable, i.e. the number of numerical elements of the list with a higher value plus one. This is a logarithmic operation if the list
+	 * is indexed, see {@link #setIndexedLists(Collection)}.
+	 * 
+	 * @param list The name of the list without the trailing '::*'
+	 * @param index The index of the element in the list
+	 * @return The rank of the element, or -1 if the element is not set or not a number
+	 */
+	public final static int getRank(final String list, final String index, final @Nullable Event e, final boolean local) {
+		if (local)
+			return getRank(getVariable(list + Variable.SEPARATOR + "*", e, true), index);
+		variablesLock.readLock().lock();
+		try {
+			final RankIndex rankIndex = variables.getRankIndex(list);
+			if (rankIndex != null)
+				return rankIndex.getRank(index);
+			return getRank(variables.getVariable(list + Variable.SEPARATOR + "*"), index);
+		} finally {
+			variablesLock.readLock().unlock();
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private final static int getRank(final @Nullable Object list, final String index) {
+		if (!(list instanceof Map))
+			return -1;
+		final Map<String, Object> map = (Map<String, Object>) list;
+		final Object value = getListElement(map.get(index));
+		if (!(value instanceof Number))
+			return -1;
+		int rank = 1;
+		for (final Entry<String, Object> e : map.entrySet()) {
+			if (e.getKey() == null)
+				continue;
+			final Object o = getListElement(e.getValue());
+			if (o instanceof Number && RankIndex.compare((Number) o, (Number) value) > 0)
+				rank++;
+		}
+		return rank;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private final static Object getListElement(final @Nullable Object o) {
+		return o instanceof Map ? ((Map<String, Object>) o).get(null) : o;
+	}
+	
+	/**
+	 * Gets the highest or lowest values of an indexed global list variable, see {@link #setIndexedLists(Collection)}.
+	 * 
+	 * @param list The name of the list without the trailing '::*'
+	 * @param amount The maximum number of values to return
+	 * @param descending Whether to return the highest values (in descending order) or the lowest values (in ascending order)
+	 * @return The values, or null if the list is not indexed or contains values which are not numbers
+	 */
+	@Nullable
+	public final static Object[] getTop(final String list, final int amount, final boolean descending) {
+		variablesLock.readLock().lock();
+		try {
+			final RankIndex rankIndex = variables.getRankIndex(list);
+			if (rankIndex == null || !rankIndex.isComplete())
+				return null;
+			return rankIndex.getTop(amount, descending);
+		} finally {
+			variablesLock.readLock().unlock();
+		}
+	}
+	
 	final static void setVariable(final String name, @Nullable final Object value) {
 		try {
 			variablesLock.writeLock().lock();
@@ -21,6 +21,7 @@
 
 package ch.njol.skript.variables;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
@@ -72,9 +73,147 @@ final class VariablesMap {
 		}
 	};
 	
+	/**
+	 * The map of a list variable. Keeps track of the first free numerical index of the list (only indices consisting solely of digits, i.e. the indices used by
+	 * 'add ... to {list::*}', are considered), thus adding to a list does not have to test all of its indices again.
+	 */
+	final static class ListNode extends TreeMap<String, Object> {
+		private static final long serialVersionUID = 8105713924356240516L;
+		
+		/**
+		 * All indices from 1 up to, but excluding, this index are set. This is not necessarily the first free index, use {@link #getFreeIndex(int)} to find that.
+		 */
+		private int freeIndex = 1;
+		
+		ListNode() {
+			super(variableNameComparator);
+		}
+		
+		/**
+		 * @param start The index to start searching from
+		 * @return The first index of at least <tt>start</tt> which is not used in this list
+		 */
+		int getFreeIndex(final int start) {
+			int i = Math.max(start, freeIndex);
+			while (containsKey("" + i))
+				i++;
+			if (start <= freeIndex)
+				freeIndex = i;
+			return i;
+		}
+		
+		@Override
+		@Nullable
+		public Object put(final @Nullable String key, final Object value) {
+			if (key != null && parseIndex(key) == freeIndex)
+				freeIndex++;
+			return super.put(key, value);
+		}
+		
+		@Override
+		@Nullable
+		public Object remove(final @Nullable Object key) {
+			final Object o = super.remove(key);
+			if (o != null && key instanceof String) {
+				final int i = parseIndex((String) key);
+				if (i > 0 && i < freeIndex)
+					freeIndex = i;
+			}
+			return o;
+		}
+		
+		@Override
+		public void clear() {
+			super.clear();
+			freeIndex = 1;
+		}
+		
+		/**
+		 * Leading zeroes are ignored, as {@link VariablesMap#variableNameComparator} compares numbers by their value, i.e. "01" and "1" are the same index.
+		 * 
+		 * @return The given index as number if it consists solely of digits, or -1 otherwise (also if it is too large)
+		 */
+		private static int parseIndex(final String s) {
+			if (s.isEmpty())
+				return -1;
+			int start = 0;
+			while (start < s.length() - 1 && s.charAt(start) == '0')
+				start++;
+			if (s.length() - start > 9)
+				return -1;
+			int i = 0;
+			for (int j = start; j < s.length(); j++) {
+				final char c = s.charAt(j);
+				if (c < '0' || c > '9')
+					return -1;
+				i = 10 * i + c - '0';
+			}
+			return i;
+		}
+	}
+	
 	final HashMap<String, Object> hashMap = new HashMap<String, Object>();
 	final TreeMap<String, Object> treeMap = new TreeMap<String, Object>();
 	
+	/**
+	 * Rank indices of list variables by the name of the list without the trailing '::*', or null if no list is indexed
+	 */
+	@Nullable
+	private HashMap<String, RankIndex> rankIndices = null;
+	
+	/**
+	 * Sets which list variables have a {@link RankIndex}. The indices are built from the current values of the lists.
+	 * 
+	 * @param lists The names of the lists, without the trailing '::*'
+	 */
+	@SuppressWarnings("unchecked")
+	final void setRankIndices(final Collection<String> lists) {
+		if (lists.isEmpty()) {
+			rankIndices = null;
+			return;
+		}
+		final HashMap<String, RankIndex> rankIndices = new HashMap<String, RankIndex>();
+		for (final String list : lists) {
+			final RankIndex index = new RankIndex();
+			final Object l = getVariable(list + Variable.SEPARATOR + "*");
+			if (l != null) {
+				for (final Entry<String, Object> e : ((Map<String, Object>) l).entrySet()) {
+					if (e.getKey() != null)
+						index.set(e.getKey(), e.getValue() instanceof Map ? ((Map<String, Object>) e.getValue()).get(null) : e.getValue());
+				}
+			}
+			rankIndices.put(list, index);
+		}
+		this.rankIndices = rankIndices;
+	}
+	
+	/**
+	 * @param list The name of a list variable without the trailing '::*'
+	 * @return The list's index or null if the list is not indexed
+	 */
+	@Nullable
+	final RankIndex getRankIndex(final String list) {
+		final HashMap<String, RankIndex> rankIndices = this.rankIndices;
+		return rankIndices == null ? null : rankIndices.get(list);
+	}
+	
+	private final void updateRankIndices(final HashMap<String, RankIndex> rankIndices, final String name, final @Nullable Object value) {
+		if (name.endsWith(Variable.SEPARATOR + "*")) {
+			final String list = name.substring(0, name.length() - Variable.SEPARATOR.length() - 1);
+			for (final Entry<String, RankIndex> e : rankIndices.entrySet()) {
+				if (e.getKey().equals(list) || e.getKey().startsWith(list + Variable.SEPARATOR))
+					e.getValue().clear();
+			}
+		} else {
+			final int i = name.lastIndexOf(Variable.SEPARATOR);
+			if (i == -1)
+				return;
+			final RankIndex index = rankIndices.get(name.substring(0, i));
+			if (index != null)
+				index.set("" + name.substring(i + Variable.SEPARATOR.length()), value);
+		}
+	}
+	
 	/**
 	 * Returns the internal value of the requested variable.
 	 * <p>
@@ -120,6 +259,9 @@ final class VariablesMap {
 	 */
 	@SuppressWarnings("unchecked")
 	final void setVariable(final String name, final @Nullable Object value) {
+		final HashMap<String, RankIndex> rankIndices = this.rankIndices;
+		if (rankIndices != null)
+			updateRankIndices(rankIndices, name, value);
 		if (!name.endsWith("*")) {
 			if (value == null)
 				hashMap.remove(name);
@@ -137,7 +279,7 @@ final class VariablesMap {
 						parent.put(n, value);
 					break;
 				} else if (value != null) {
-					parent.put(n, current = new TreeMap<String, Object>(variableNameComparator));
+					parent.put(n, current = new ListNode());
 					parent = (TreeMap<String, Object>) current;
 					continue;
 				} else {
@@ -171,7 +313,7 @@ final class VariablesMap {
 						parent.put(n, value);
 					break;
 				} else if (value != null) {
-					final TreeMap<String, Object> c = new TreeMap<String, Object>(variableNameComparator);
+					final TreeMap<String, Object> c = new ListNode();
 					c.put(null, current);
 					parent.put(n, c);
 					parent = c;
@@ -183,6 +325,29 @@ final class VariablesMap {
 		}
 	}
 	
+	/**
+	 * @return A copy of this map. Variable values are not copied.
+	 */
+	VariablesMap copy() {
+		final VariablesMap copy = new VariablesMap();
+		copy.hashMap.putAll(hashMap);
+		copyTree(treeMap, copy.treeMap);
+		return copy;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static void copyTree(final TreeMap<String, Object> from, final TreeMap<String, Object> to) {
+		for (final Entry<String, Object> e : from.entrySet()) {
+			Object val = e.getValue();
+			if (val instanceof TreeMap) {
+				final ListNode node = new ListNode();
+				copyTree((TreeMap<String, Object>) val, node);
+				val = node;
+			}
+			to.put(e.getKey(), val);
+		}
+	}
+	
 	@SuppressWarnings("unchecked")
 	void deleteFromHashMap(final String parent, final TreeMap<String, Object> current) {
 		for (final Entry<String, Object> e : current.entrySet()) {
@@ -23,6 +23,9 @@ package ch.njol.skript.variables;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -50,8 +53,44 @@ public abstract class VariablesStorage implements Closeable {
 	
 	private final static int QUEUE_SIZE = 1000, FIRST_WARNING = 300;
 	
+	/**
+	 * The maximum number of changes written at once by the {@link #writeThread}
+	 */
+	private final static int MAX_BATCH_SIZE = QUEUE_SIZE;
+	
 	final LinkedBlockingQueue<SerializedVariable> changesQueue = new LinkedBlockingQueue<SerializedVariable>(QUEUE_SIZE);
 	
+	/**
+	 * Changes made while the {@link #changesQueue} was full, mapped by the variables' names so that only the latest change of each variable is kept. Thus the memory used is
+	 * limited by the number of variables instead of the number of changes, and threads changing variables never have to wait for the database.
+	 * <p>
+	 * Once changes are coalesced here, all further changes are added to this map as well until the write thread has written all changes of the queue and then takes this map's
+	 * contents, so that no older change can overwrite a newer one.
+	 * <p>
+	 * Guarded by itself, which also guards adding changes to and taking changes from the {@link #changesQueue}.
+	 */
+	private final LinkedHashMap<String, SerializedVariable> coalescedChanges = new LinkedHashMap<String, SerializedVariable>();
+	private boolean coalescing = false;
+	private long coalescedCount = 0;
+	
+	/**
+	 * Incremented whenever the queued changes are {@link #clearChangesQueue() cleared}, so that the write thread can discard a batch it has already taken from the queue, see
+	 * {@link #isBatchCleared()}.
+	 */
+	private volatile int changesGeneration = 0;
+	/**
+	 * The value of {@link #changesGeneration} when the batch currently being written was taken from the queue
+	 */
+	private volatile int batchGeneration = 0;
+	
+	/**
+	 * Whether the write thread is currently writing a batch of changes
+	 */
+	private volatile boolean writing = false;
+	
+	// statistics, only written by the write thread
+	private volatile long writtenChanges = 0, writtenBatches = 0, totalWriteTime = 0, maxWriteTime = 0;
+	
 	protected volatile boolean closed = false;
 	
 	protected final String databaseName;
@@ -73,15 +112,33 @@ public abstract class VariablesStorage implements Closeable {
 		writeThread = Skript.newThread(new Runnable() {
 			@Override
 			public void run() {
+				final List<SerializedVariable> batch = new ArrayList<SerializedVariable>();
 				while (!closed) {
 					try {
-						final SerializedVariable var = changesQueue.take();
-						final Value d = var.value;
-						if (d != null)
-							save(var.name, d.type, d.data);
-						else
-							save(var.name, null, null);
-					} catch (final InterruptedException e) {}
+						synchronized (coalescedChanges) {
+							while (changesQueue.isEmpty() && !coalescing)
+								coalescedChanges.wait();
+							writing = true;
+							batchGeneration = changesGeneration;
+							changesQueue.drainTo(batch, MAX_BATCH_SIZE);
+							if (batch.isEmpty()) {
+								batch.addAll(coalescedChanges.values());
+								coalescedChanges.clear();
+								coalescing = false;
+							}
+						}
+						final long start = System.nanoTime();
+						save(batch);
+						final long time = System.nanoTime() - start;
+						writtenChanges += batch.size();
+						writtenBatches++;
+						totalWriteTime += time;
+						if (time > maxWriteTime)
+							maxWriteTime = time;
+					} catch (final InterruptedException e) {} finally {
+						writing = false;
+						batch.clear();
+					}
 				}
 			}
 		}, "Skript variable save thread for database '" + name + "'");
@@ -244,34 +301,118 @@ public abstract class VariablesStorage implements Closeable {
 	
 	/**
 	 * May be called from a different thread than Bukkit's main thread.
+	 * <p>
+	 * Never blocks: if the queue of changes is full, changes are {@link #coalescedChanges coalesced} until the database catches up.
 	 */
 	final void save(final SerializedVariable var) {
 		if (changesQueue.size() > FIRST_WARNING && lastWarning < System.currentTimeMillis() - WARNING_INTERVAL * 1000) {
 			Skript.warning("Cannot write variables to the database '" + databaseName + "' at sufficient speed; server performance may suffer and many variables will be lost if the server crashes. (this warning will be repeated at most once every " + WARNING_INTERVAL + " seconds)");
 			lastWarning = System.currentTimeMillis();
 		}
-		if (!changesQueue.offer(var)) {
-			if (lastError < System.currentTimeMillis() - ERROR_INTERVAL * 1000) {
-				Skript.error("Skript cannot save any variables to the database '" + databaseName + "'. The server will hang and may crash if no more variables can be saved.");
-				lastError = System.currentTimeMillis();
-			}
-			while (true) {
-				try {
-					// REMIND add repetitive error and/or stop saving variables altogether?
-					changesQueue.put(var);
-					break;
-				} catch (final InterruptedException e) {}
+		synchronized (coalescedChanges) {
+			if (!coalescing) {
+				if (changesQueue.offer(var)) {
+					if (changesQueue.size() == 1)
+						coalescedChanges.notify(); // wakes up the write thread
+					return;
+				}
+				coalescing = true;
+				if (lastError < System.currentTimeMillis() - ERROR_INTERVAL * 1000) {
+					Skript.error("The database '" + databaseName + "' cannot keep up with the changes to variables. Only the latest value of each changed variable will be saved until it catches up. (this error will be repeated at most once every " + ERROR_INTERVAL + " seconds)");
+					lastError = System.currentTimeMillis();
+				}
 			}
+			coalescedChanges.remove(var.name); // keeps the order of changes
+			coalescedChanges.put(var.name, var);
+			coalescedCount++;
 		}
 	}
 	
+	/**
+	 * Saves a batch of changes. This is called from the {@link #writeThread} only.
+	 * <p>
+	 * The default implementation calls {@link #save(String, String, byte[])} for each change; storages which can write multiple variables at once more efficiently should
+	 * override this method.
+	 * 
+	 * @param changes The changes in the order they were made. A variable may be included multiple times.
+	 */
+	protected void save(final List<SerializedVariable> changes) {
+		for (final SerializedVariable var : changes) {
+			final Value d = var.value;
+			if (d != null)
+				save(var.name, d.type, d.data);
+			else
+				save(var.name, null, null);
+		}
+	}
+	
+	/**
+	 * Storages which clear the changes queue must call this while holding the {@link #connectionLock} before writing a batch in {@link #save(List)}, and must not write the
+	 * batch if this returns true.
+	 * 
+	 * @return Whether the changes queue has been cleared since the batch currently being written was taken from it
+	 */
+	protected final boolean isBatchCleared() {
+		return batchGeneration != changesGeneration;
+	}
+	
+	/**
+	 * @return The number of changes waiting to be written, including coalesced changes
+	 */
+	public int getQueueDepth() {
+		synchronized (coalescedChanges) {
+			return changesQueue.size() + coalescedChanges.size();
+		}
+	}
+	
+	/**
+	 * @return How many changes have been coalesced with a later change of the same variable or are currently waiting to be so
+	 */
+	public long getCoalescedChanges() {
+		synchronized (coalescedChanges) {
+			return coalescedCount;
+		}
+	}
+	
+	/**
+	 * @return The number of changes written so far
+	 */
+	public long getWrittenChanges() {
+		return writtenChanges;
+	}
+	
+	/**
+	 * @return The number of batches written so far
+	 */
+	public long getWrittenBatches() {
+		return writtenBatches;
+	}
+	
+	/**
+	 * @return The total time spent writing changes in nanoseconds
+	 */
+	public long getTotalWriteTime() {
+		return totalWriteTime;
+	}
+	
+	/**
+	 * @return The longest time spent writing a single batch of changes in nanoseconds
+	 */
+	public long getMaxWriteTime() {
+		return maxWriteTime;
+	}
+	
+	public String getName() {
+		return databaseName;
+	}
+	
 	/**
 	 * Called when Skript gets disabled. The default implementation will wait for all variables to be saved before setting {@link #closed} to true and stopping the write thread,
 	 * thus <tt>super.close()</tt> must be called if this method is overridden!
 	 */
 	@Override
 	public void close() {
-		while (changesQueue.size() > 0) {
+		while (writing || getQueueDepth() > 0) {
 			try {
 				Thread.sleep(10);
 			} catch (final InterruptedException e) {}
@@ -281,10 +422,16 @@ public abstract class VariablesStorage implements Closeable {
 	}
 	
 	/**
-	 * Clears the queue of unsaved variables. Only used if all variables are saved immediately after calling this method.
+	 * Clears the queue of unsaved variables, including the batch the write thread is currently writing (see {@link #isBatchCleared()}). Only used if all variables are saved
+	 * immediately after calling this method.
 	 */
 	protected void clearChangesQueue() {
-		changesQueue.clear();
+		synchronized (coalescedChanges) {
+			changesQueue.clear();
+			coalescedChanges.clear();
+			coalescing = false;
+			changesGeneration++;
+		}
 	}
 	
 	/**
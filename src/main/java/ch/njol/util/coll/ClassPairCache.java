@@ -0,0 +1,74 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.util.coll;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A thread-safe cache of values computed from a pair of classes, e.g. converters or comparators between two types.
+ * <p>
+ * The first class selects a per-class map through a {@link ClassValue}, which is then queried with the second class. Classes use identity equality, thus lookups are effectively
+ * identity lookups which neither lock nor allocate once a value is cached. Values may be computed more than once if multiple threads request the same pair concurrently, but only
+ * one of the results will ever be returned.
+ * @param <V> The type of the cached values
+ */
+@ThreadSafe
+public abstract class ClassPairCache<V> {
+	
+	/**
+	 * Marks pairs for which {@link #compute(Class, Class)} returned null
+	 */
+	private final static Object NONE = new Object();
+	
+	private final ClassValue<ConcurrentHashMap<Class<?>, Object>> cache = new ClassValue<ConcurrentHashMap<Class<?>, Object>>() {
+		@Override
+		protected ConcurrentHashMap<Class<?>, Object> computeValue(final @Nullable Class<?> type) {
+			return new ConcurrentHashMap<Class<?>, Object>(4);
+		}
+	};
+	
+	/**
+	 * Computes the value for a pair of classes that is not yet cached. This must not have side effects, as it might be called more than once for the same pair.
+	 * 
+	 * @return The value for the given pair, which may be null
+	 */
+	@Nullable
+	protected abstract V compute(Class<?> first, Class<?> second);
+	
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public final V get(final Class<?> first, final Class<?> second) {
+		final ConcurrentHashMap<Class<?>, Object> values = cache.get(first);
+		Object v = values.get(second);
+		if (v == null) {
+			final V computed = compute(first, second);
+			v = computed == null ? NONE : computed;
+			final Object previous = values.putIfAbsent(second, v);
+			if (previous != null)
+				v = previous;
+		}
+		return v == NONE ? null : (V) v;
+	}
+	
+}
@@ -0,0 +1,371 @@
+/*
+ *   This file is part of Yggdrasil, a data format to store object graphs, and the Java implementation thereof.
+ *
+ *  Yggdrasil is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Yggdrasil is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2013-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.yggdrasil;
+
+import static ch.njol.yggdrasil.Tag.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Array;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Reads the compact, schema-based Yggdrasil format. See {@link CompactYggdrasilOutputStream} for a description of the format.
+ */
+public final class CompactYggdrasilInputStream extends YggdrasilInputStream {
+	
+	@SuppressWarnings("null")
+	private final static Charset UTF_8 = Charset.forName("UTF-8");
+	
+	final InputStream in;
+	
+	public CompactYggdrasilInputStream(final Yggdrasil y, final InputStream in) throws IOException {
+		super(y);
+		this.in = in;
+		if (readInt() != Yggdrasil.MAGIC_NUMBER)
+			throw new StreamCorruptedException("Not an Yggdrasil stream");
+		final short version = readShort();
+		if (version != Yggdrasil.COMPACT_VERSION)
+			throw new StreamCorruptedException("Not a compact Yggdrasil stream (version " + version + ")");
+	}
+	
+	/**
+	 * Creates a stream whose header has already been read by {@link Yggdrasil#newInputStream(InputStream)}.
+	 */
+	CompactYggdrasilInputStream(final Yggdrasil y, final InputStream in, final short version) throws IOException {
+		super(y);
+		this.in = in;
+		if (version != Yggdrasil.COMPACT_VERSION)
+			throw new StreamCorruptedException("Not a compact Yggdrasil stream (version " + version + ")");
+	}
+	
+	// private
+	
+	/**
+	 * @throws EOFException If the end of the stream is reached
+	 */
+	private int read() throws IOException {
+		final int b = in.read();
+		if (b < 0)
+			throw new EOFException();
+		return b;
+	}
+	
+	private void readFully(final byte[] buf) throws IOException {
+		int off = 0;
+		while (off < buf.length) {
+			final int n = in.read(buf, off, buf.length - off);
+			if (n < 0)
+				throw new EOFException("Expected " + buf.length + " bytes, but could only read " + off);
+			off += n;
+		}
+	}
+	
+	private int readVarInt() throws IOException {
+		int r = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			final int b = read();
+			r |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return r;
+		}
+		throw new StreamCorruptedException("Malformed variable length integer");
+	}
+	
+	private long readVarLong() throws IOException {
+		long r = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			final int b = read();
+			r |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return r;
+		}
+		throw new StreamCorruptedException("Malformed variable length integer");
+	}
+	
+	private int readLength() throws IOException {
+		final int l = readVarInt();
+		if (l < 0)
+			throw new StreamCorruptedException("Invalid length " + l);
+		return l;
+	}
+	
+	private final List<String> readShortStrings = new ArrayList<>();
+	
+	private String readShortString() throws IOException {
+		final int i = readVarInt();
+		if (i != 0) {
+			if (i < 0 || i > readShortStrings.size())
+				throw new StreamCorruptedException("Invalid short string reference " + (i - 1));
+			return "" + readShortStrings.get(i - 1);
+		}
+		final byte[] d = new byte[readLength()];
+		readFully(d);
+		final String s = new String(d, UTF_8);
+		readShortStrings.add(s);
+		return s;
+	}
+	
+	// Tag
+	
+	@Override
+	protected Tag readTag() throws IOException {
+		final int t = read();
+		final Tag tag = Tag.byID(t);
+		if (tag == null)
+			throw new StreamCorruptedException("Invalid tag 0x" + Integer.toHexString(t));
+		return tag;
+	}
+	
+	// Primitives
+	
+	private short readShort() throws IOException {
+		return (short) (read() << 8 | read());
+	}
+	
+	private int readInt() throws IOException {
+		return read() << 24
+				| read() << 16
+				| read() << 8
+				| read();
+	}
+	
+	private long readLong() throws IOException {
+		return (long) readInt() << 32 | readInt() & 0xFFFFFFFFL;
+	}
+	
+	private final static int unzigzag(final int i) {
+		return (i >>> 1) ^ -(i & 1);
+	}
+	
+	@SuppressWarnings("null")
+	@Override
+	protected Object readPrimitive(final Tag type) throws IOException {
+		switch (type) {
+			case T_BYTE:
+				return (byte) read();
+			case T_SHORT:
+				return (short) unzigzag(readVarInt());
+			case T_INT:
+				return unzigzag(readVarInt());
+			case T_LONG:
+				final long l = readVarLong();
+				return (l >>> 1) ^ -(l & 1);
+			case T_FLOAT:
+				return Float.intBitsToFloat(readInt());
+			case T_DOUBLE:
+				return Double.longBitsToDouble(readLong());
+			case T_CHAR:
+				return (char) readVarInt();
+			case T_BOOLEAN:
+				final int r = read();
+				if (r == 0)
+					return false;
+				else if (r == 1)
+					return true;
+				throw new StreamCorruptedException("Invalid boolean value " + r);
+				//$CASES-OMITTED$
+			default:
+				throw new YggdrasilException("Internal error; " + type);
+		}
+	}
+	
+	@Override
+	protected Object readPrimitive_(final Tag type) throws IOException {
+		return readPrimitive(type);
+	}
+	
+	// String
+	
+	@Override
+	protected String readString() throws IOException {
+		final byte[] d = new byte[readLength()];
+		readFully(d);
+		return new String(d, UTF_8);
+	}
+	
+	// Array
+	
+	@Override
+	protected Class<?> readArrayComponentType() throws IOException {
+		return readClass();
+	}
+	
+	@Override
+	protected int readArrayLength() throws IOException {
+		return readLength();
+	}
+	
+	// Enum
+	
+	@Override
+	protected Class<?> readEnumType() throws IOException {
+		return yggdrasil.getClass(readShortString());
+	}
+	
+	@Override
+	protected String readEnumID() throws IOException {
+		return readShortString();
+	}
+	
+	// Class
+	
+	@SuppressWarnings("null")
+	@Override
+	protected Class<?> readClass() throws IOException {
+		Tag type;
+		int dim = 0;
+		while ((type = readTag()) == T_ARRAY)
+			dim++;
+		@NonNull
+		Class<?> c;
+		switch (type) {
+			case T_OBJECT:
+			case T_ENUM:
+				c = yggdrasil.getClass(readShortString());
+				break;
+			case T_NULL:
+			case T_REFERENCE:
+				throw new StreamCorruptedException("unexpected tag " + type);
+				//$CASES-OMITTED$
+			default:
+				c = type.c;
+				assert c != null;
+				break;
+		}
+		while (dim-- > 0)
+			c = Array.newInstance(c, 0).getClass();
+		return c;
+	}
+	
+	// Reference
+	
+	@Override
+	protected int readReference() throws IOException {
+		return readVarInt();
+	}
+	
+	// generic Object
+	
+	private final static class Schema {
+		
+		final Class<?> type;
+		final String[] fieldIDs;
+		/** the primitive type of each field, or null if the field holds an object */
+		final Tag[] primitives;
+		
+		Schema(final Class<?> type, final int numFields) {
+			this.type = type;
+			fieldIDs = new String[numFields];
+			primitives = new Tag[numFields];
+		}
+		
+	}
+	
+	private final List<Schema> readSchemas = new ArrayList<>();
+	
+	/**
+	 * The schema read by the last call to {@link #readObjectType()}, to be used by the subsequent call to {@link #readFields()}
+	 */
+	@Nullable
+	private Schema currentSchema = null;
+	
+	private Schema readSchema() throws IOException {
+		final int i = readVarInt();
+		if (i != 0) {
+			if (i < 0 || i > readSchemas.size())
+				throw new StreamCorruptedException("Invalid schema reference " + (i - 1));
+			return readSchemas.get(i - 1);
+		}
+		final Class<?> type = yggdrasil.getClass(readShortString());
+		final int numFields = readLength();
+		if (numFields > Short.MAX_VALUE)
+			throw new StreamCorruptedException("Too many fields (" + numFields + ")");
+		final Schema s = new Schema(type, numFields);
+		for (int f = 0; f < numFields; f++) {
+			s.fieldIDs[f] = readShortString();
+			final Tag t = readTag();
+			if (t != T_OBJECT && !t.isPrimitive())
+				throw new StreamCorruptedException("Invalid field type " + t);
+			s.primitives[f] = t == T_OBJECT ? null : t;
+		}
+		readSchemas.add(s);
+		return s;
+	}
+	
+	@Override
+	protected Class<?> readObjectType() throws IOException {
+		final Schema s = readSchema();
+		currentSchema = s;
+		return s.type;
+	}
+	
+	@Override
+	protected Fields readFields() throws IOException {
+		final Schema s = currentSchema;
+		if (s == null)
+			throw new StreamCorruptedException("Fields without an object type");
+		currentSchema = null; // reading the fields will read nested objects
+		final Fields fields = new Fields(yggdrasil);
+		for (int i = 0; i < s.fieldIDs.length; i++) {
+			final String id = s.fieldIDs[i];
+			final Tag p = s.primitives[i];
+			if (p != null)
+				fields.putPrimitive(id, readPrimitive(p));
+			else
+				fields.putObject(id, readObject());
+		}
+		return fields;
+	}
+	
+	// these are only used by the default implementation of readFields
+	
+	@Override
+	protected short readNumFields() throws IOException {
+		throw new YggdrasilException("Internal error");
+	}
+	
+	@Override
+	protected String readFieldID() throws IOException {
+		throw new YggdrasilException("Internal error");
+	}
+	
+	// stream
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			read();
+			throw new StreamCorruptedException("Stream still has data, at least " + (1 + in.available()) + " bytes remain");
+		} catch (final EOFException e) {} finally {
+			in.close();
+		}
+	}
+	
+}
@@ -0,0 +1,365 @@
+/*
+ *   This file is part of Yggdrasil, a data format to store object graphs, and the Java implementation thereof.
+ *
+ *  Yggdrasil is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Yggdrasil is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2013-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.yggdrasil;
+
+import static ch.njol.yggdrasil.Tag.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import ch.njol.yggdrasil.Fields.FieldContext;
+
+/**
+ * Writes the compact, schema-based Yggdrasil format ({@link Yggdrasil#COMPACT_VERSION}).
+ * <p>
+ * Unlike the default format, the field IDs of an object are not written for every object. Instead the class ID together with the IDs and primitive types of its fields (the
+ * <i>schema</i>) is written once per stream when it is first used, and all further objects with the same schema only write a reference to it followed by their field values in
+ * the schema's order. Primitive fields are written without a tag, and integers, lengths and references are written as variable length integers.
+ * <p>
+ * The format in detail (all numbers are unsigned varints unless noted otherwise):
+ * <ul>
+ * <li>header: {@link Yggdrasil#MAGIC_NUMBER} and {@link Yggdrasil#COMPACT_VERSION}, both big-endian as in the default format
+ * <li>short strings (class IDs, field IDs and enum IDs): <tt>index + 1</tt> of an already written string, or <tt>0</tt> followed by the UTF-8 length and bytes of a new string
+ * <li>objects: the {@link Tag#T_OBJECT object tag}, <tt>index + 1</tt> of an already written schema or <tt>0</tt> followed by a new schema (class ID, number of fields, and
+ * for every field its ID and either its primitive tag or {@link Tag#T_OBJECT}), and then all field values in order (primitives untagged, objects as usual)
+ * <li>byte, float, double and boolean values are written like in the default format, short, int and long values as zigzag encoded varints, chars as varints
+ * <li>everything else is like the default format, but with varints for lengths and references
+ * </ul>
+ */
+public final class CompactYggdrasilOutputStream extends YggdrasilOutputStream {
+	
+	@SuppressWarnings("null")
+	private final static Charset UTF_8 = Charset.forName("UTF-8");
+	
+	private final OutputStream out;
+	
+	public CompactYggdrasilOutputStream(final Yggdrasil y, final OutputStream out) throws IOException {
+		super(y);
+		this.out = out;
+		writeInt(Yggdrasil.MAGIC_NUMBER);
+		writeShort(Yggdrasil.COMPACT_VERSION);
+	}
+	
+	// private
+	
+	private void write(final int b) throws IOException {
+		out.write(b);
+	}
+	
+	@Override
+	protected void writeTag(final Tag t) throws IOException {
+		out.write(t.tag);
+	}
+	
+	private void writeVarInt(int i) throws IOException {
+		while ((i & ~0x7F) != 0) {
+			write((i & 0x7F) | 0x80);
+			i >>>= 7;
+		}
+		write(i);
+	}
+	
+	private void writeVarLong(long l) throws IOException {
+		while ((l & ~0x7FL) != 0) {
+			write((int) (l & 0x7F) | 0x80);
+			l >>>= 7;
+		}
+		write((int) l);
+	}
+	
+	private final HashMap<String, Integer> writtenShortStrings = new HashMap<>();
+	
+	/**
+	 * Writes a class ID, field ID or enum ID
+	 */
+	private void writeShortString(final String s) throws IOException {
+		final Integer i = writtenShortStrings.get(s);
+		if (i != null) {
+			writeVarInt(i + 1);
+			return;
+		}
+		if (writtenShortStrings.size() == Integer.MAX_VALUE)
+			throw new YggdrasilException("Too many field names/class IDs (max: " + Integer.MAX_VALUE + ")");
+		writeVarInt(0);
+		final byte[] d = s.getBytes(UTF_8);
+		writeVarInt(d.length);
+		out.write(d);
+		writtenShortStrings.put(s, writtenShortStrings.size());
+	}
+	
+	// Primitives
+	
+	private void writeByte(final byte b) throws IOException {
+		write(b & 0xFF);
+	}
+	
+	private void writeShort(final short s) throws IOException {
+		write((s >>> 8) & 0xFF);
+		write(s & 0xFF);
+	}
+	
+	private void writeInt(final int i) throws IOException {
+		write((i >>> 24) & 0xFF);
+		write((i >>> 16) & 0xFF);
+		write((i >>> 8) & 0xFF);
+		write(i & 0xFF);
+	}
+	
+	private void writeLong(final long l) throws IOException {
+		writeInt((int) (l >>> 32));
+		writeInt((int) l);
+	}
+	
+	@Override
+	protected void writePrimitive_(final Object o) throws IOException {
+		switch (getPrimitiveFromWrapper(o.getClass())) {
+			case T_BYTE:
+				writeByte((Byte) o);
+				break;
+			case T_SHORT:
+				writeVarInt(zigzag((Short) o));
+				break;
+			case T_INT:
+				writeVarInt(zigzag((Integer) o));
+				break;
+			case T_LONG:
+				final long l = (Long) o;
+				writeVarLong((l << 1) ^ (l >> 63));
+				break;
+			case T_FLOAT:
+				writeInt(Float.floatToIntBits((Float) o));
+				break;
+			case T_DOUBLE:
+				writeLong(Double.doubleToLongBits((Double) o));
+				break;
+			case T_CHAR:
+				writeVarInt((Character) o);
+				break;
+			case T_BOOLEAN:
+				write((Boolean) o ? 1 : 0);
+				break;
+			//$CASES-OMITTED$
+			default:
+				throw new YggdrasilException("Invalid call to writePrimitive with argument " + o);
+		}
+	}
+	
+	private final static int zigzag(final int i) {
+		return (i << 1) ^ (i >> 31);
+	}
+	
+	@Override
+	protected void writePrimitiveValue(final Object o) throws IOException {
+		writePrimitive_(o);
+	}
+	
+	// String
+	
+	@Override
+	protected void writeStringValue(final String s) throws IOException {
+		final byte[] d = s.getBytes(UTF_8);
+		writeVarInt(d.length);
+		out.write(d);
+	}
+	
+	// Array
+	
+	@Override
+	protected void writeArrayComponentType(final Class<?> componentType) throws IOException {
+		writeClass_(componentType);
+	}
+	
+	@Override
+	protected void writeArrayLength(final int length) throws IOException {
+		writeVarInt(length);
+	}
+	
+	@Override
+	protected void writeArrayEnd() throws IOException {}
+	
+	// Class
+	
+	@Override
+	protected void writeClassType(final Class<?> c) throws IOException {
+		writeClass_(c);
+	}
+	
+	private void writeClass_(Class<?> c) throws IOException {
+		while (c.isArray()) {
+			writeTag(T_ARRAY);
+			c = c.getComponentType();
+		}
+		final Tag t = getType(c);
+		switch (t) {
+			case T_OBJECT:
+			case T_ENUM:
+				writeTag(t);
+				writeShortString(yggdrasil.getID(c));
+				break;
+			case T_NULL:
+			case T_REFERENCE:
+			case T_ARRAY:
+				throw new YggdrasilException("" + c.getCanonicalName());
+				//$CASES-OMITTED$
+			default:
+				writeTag(t);
+				break;
+		}
+	}
+	
+	// Enum
+	
+	@Override
+	protected void writeEnumType(final String type) throws IOException {
+		writeShortString(type);
+	}
+	
+	@Override
+	protected void writeEnumID(final String id) throws IOException {
+		writeShortString(id);
+	}
+	
+	// generic Object
+	
+	/**
+	 * The class ID and field layout of objects, written once per stream.
+	 */
+	private final static class Schema {
+		
+		final int id;
+		final String[] fieldIDs;
+		/** the primitive type of each field, or null if the field holds an object */
+		final Tag[] primitives;
+		
+		Schema(final int id, final Fields fields) throws IOException {
+			this.id = id;
+			fieldIDs = new String[fields.size()];
+			primitives = new Tag[fields.size()];
+			int i = 0;
+			for (final FieldContext f : fields) {
+				fieldIDs[i] = f.id;
+				primitives[i] = f.isPrimitive() ? getPrimitiveFromWrapper(f.getPrimitive().getClass()) : null;
+				i++;
+			}
+		}
+		
+		/**
+		 * @return Whether the given fields, in their iteration order, have exactly this schema's IDs and primitive types
+		 */
+		boolean matches(final Fields fields) throws IOException {
+			if (fields.size() != fieldIDs.length)
+				return false;
+			int i = 0;
+			for (final FieldContext f : fields) {
+				if (!fieldIDs[i].equals(f.id))
+					return false;
+				if (f.isPrimitive() ? primitives[i] != getPrimitiveFromWrapper(f.getPrimitive().getClass()) : primitives[i] != null)
+					return false;
+				i++;
+			}
+			return true;
+		}
+		
+	}
+	
+	private final HashMap<String, List<Schema>> schemas = new HashMap<>();
+	private int nextSchemaID = 0;
+	
+	private Schema writeSchema(final String type, final Fields fields) throws IOException {
+		List<Schema> ss = schemas.get(type);
+		if (ss == null)
+			schemas.put(type, ss = new ArrayList<>(1));
+		for (final Schema s : ss) {
+			if (s.matches(fields)) {
+				writeVarInt(s.id + 1);
+				return s;
+			}
+		}
+		final Schema s = new Schema(nextSchemaID++, fields);
+		ss.add(s);
+		writeVarInt(0);
+		writeShortString(type);
+		writeVarInt(s.fieldIDs.length);
+		for (int i = 0; i < s.fieldIDs.length; i++) {
+			writeShortString(s.fieldIDs[i]);
+			final Tag p = s.primitives[i];
+			writeTag(p == null ? T_OBJECT : p);
+		}
+		return s;
+	}
+	
+	@Override
+	protected void writeObjectFields(final String type, final Fields fields) throws IOException {
+		final Schema s = writeSchema(type, fields);
+		int i = 0;
+		for (final FieldContext f : fields) {
+			if (s.primitives[i++] != null)
+				writePrimitive_(f.getPrimitive());
+			else
+				writeObject(f.getObject());
+		}
+	}
+	
+	// these are only used by the default implementation of writeObjectFields
+	
+	@Override
+	protected void writeObjectType(final String type) throws IOException {
+		throw new YggdrasilException("Internal error");
+	}
+	
+	@Override
+	protected void writeNumFields(final short numFields) throws IOException {
+		throw new YggdrasilException("Internal error");
+	}
+	
+	@Override
+	protected void writeFieldID(final String id) throws IOException {
+		throw new YggdrasilException("Internal error");
+	}
+	
+	@Override
+	protected void writeObjectEnd() throws IOException {}
+	
+	// Reference
+	
+	@Override
+	protected void writeReferenceID(final int ref) throws IOException {
+		writeVarInt(ref);
+	}
+	
+	// stream
+	
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+	
+}
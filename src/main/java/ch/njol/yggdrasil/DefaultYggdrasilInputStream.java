@@ -58,6 +58,17 @@ public final class DefaultYggdrasilInputStream extends YggdrasilInputStream {
 			throw new StreamCorruptedException("Input was saved using a later version of Yggdrasil");
 	}
 	
+	/**
+	 * Creates a stream whose header has already been read by {@link Yggdrasil#newInputStream(InputStream)}.
+	 */
+	DefaultYggdrasilInputStream(final Yggdrasil y, final InputStream in, final short version) throws IOException {
+		super(y);
+		this.in = in;
+		this.version = version;
+		if (version <= 0 || version > Yggdrasil.LATEST_VERSION)
+			throw new StreamCorruptedException("Input was saved using a later version of Yggdrasil");
+	}
+	
 	// private
 	
 	/**
@@ -21,6 +21,7 @@
 
 package ch.njol.yggdrasil;
 
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -90,6 +91,14 @@ public final class Yggdrasil {
 	/** latest protocol version */
 	public final static short LATEST_VERSION = 1; // version 2 is only one minor change currently
 	
+	/**
+	 * Protocol version of the compact, schema-based format written by {@link CompactYggdrasilOutputStream}. Pass this to {@link #Yggdrasil(short)} to make
+	 * {@link #newOutputStream(OutputStream)} use the compact format. Streams of both formats can always be read by {@link #newInputStream(InputStream)}.
+	 * <p>
+	 * The high byte distinguishes it from versions of the default format.
+	 */
+	public final static short COMPACT_VERSION = 0x0101;
+	
 	public final short version;
 	
 	private final List<ClassResolver> classResolvers = new ArrayList<>();
@@ -102,7 +111,7 @@ public final class Yggdrasil {
 	}
 	
 	public Yggdrasil(final short version) {
-		if (version <= 0 || version > LATEST_VERSION)
+		if ((version <= 0 || version > LATEST_VERSION) && version != COMPACT_VERSION)
 			throw new YggdrasilException("Unsupported version number");
 		this.version = version;
 		classResolvers.add(new JRESerializer());
@@ -110,11 +119,29 @@ public final class Yggdrasil {
 	}
 	
 	public YggdrasilOutputStream newOutputStream(final OutputStream out) throws IOException {
+		if (version == COMPACT_VERSION)
+			return new CompactYggdrasilOutputStream(this, out);
 		return new DefaultYggdrasilOutputStream(this, out);
 	}
 	
+	/**
+	 * Creates a stream in the compact format regardless of this Yggdrasil's version.
+	 */
+	public YggdrasilOutputStream newCompactOutputStream(final OutputStream out) throws IOException {
+		return new CompactYggdrasilOutputStream(this, out);
+	}
+	
+	/**
+	 * Reads the stream's header and creates an input stream for the format it was written in.
+	 */
 	public YggdrasilInputStream newInputStream(final InputStream in) throws IOException {
-		return new DefaultYggdrasilInputStream(this, in);
+		final DataInputStream din = new DataInputStream(in); // unbuffered, thus doesn't read past the header
+		if (din.readInt() != MAGIC_NUMBER)
+			throw new StreamCorruptedException("Not an Yggdrasil stream");
+		final short version = din.readShort();
+		if (version == COMPACT_VERSION)
+			return new CompactYggdrasilInputStream(this, in, version);
+		return new DefaultYggdrasilInputStream(this, in, version);
 	}
 	
 	@Deprecated
@@ -117,7 +117,11 @@ public abstract class YggdrasilInputStream implements Closeable {
 	
 	protected abstract String readFieldID() throws IOException;
 	
-	private final Fields readFields() throws IOException {
+	/**
+	 * Reads the fields of an object whose type has just been read with {@link #readObjectType()}. Formats that don't tag every field with its ID (e.g.
+	 * {@link CompactYggdrasilInputStream}) can override this method, in which case {@link #readNumFields()} and {@link #readFieldID()} are not used.
+	 */
+	protected Fields readFields() throws IOException {
 		final Fields fields = new Fields(yggdrasil);
 		final short numFields = readNumFields();
 		for (int i = 0; i < numFields; i++) {
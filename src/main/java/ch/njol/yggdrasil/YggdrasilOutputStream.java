@@ -162,6 +162,25 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 	
 	protected abstract void writeObjectEnd() throws IOException;
 	
+	/**
+	 * Writes an object's type and all of its fields. Formats that don't tag every field with its ID (e.g. {@link CompactYggdrasilOutputStream}) can override this method
+	 * and write the fields in a different layout, in which case {@link #writeObjectType(String)}, {@link #writeNumFields(short)} and {@link #writeFieldID(String)} are not used.
+	 * 
+	 * @param type The object's class ID
+	 * @param fields The object's fields
+	 */
+	protected void writeObjectFields(final String type, final Fields fields) throws IOException {
+		writeObjectType(type);
+		writeNumFields((short) fields.size());
+		for (final FieldContext f : fields) {
+			writeFieldID(f.id);
+			if (f.isPrimitive())
+				writePrimitive(f.getPrimitive());
+			else
+				writeObject(f.getObject());
+		}
+	}
+	
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private final void writeGenericObject(final Object o, int ref) throws IOException {
 		final Class<?> c = o.getClass();
@@ -189,15 +208,7 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 			throw new YggdrasilException("Class " + c.getCanonicalName() + " has too many fields (" + fields.size() + ")");
 		
 		writeTag(T_OBJECT);
-		writeObjectType(yggdrasil.getID(c));
-		writeNumFields((short) fields.size());
-		for (final FieldContext f : fields) {
-			writeFieldID(f.id);
-			if (f.isPrimitive())
-				writePrimitive(f.getPrimitive());
-			else
-				writeObject(f.getObject());
-		}
+		writeObjectFields(yggdrasil.getID(c), fields);
 		writeObjectEnd();
 		
 		if (ref < 0)
@@ -0,0 +1,87 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+public class SorterTest {
+	
+	private final static Random random = new Random(42);
+	
+	@Test
+	public void testPrimitive() {
+		assertArrayEquals(new Object[] {-3L, 1L, 2L, 2L, 10L}, Sorter.sort(new Object[] {2L, 10L, -3L, 2L, 1L}, null, false));
+		assertArrayEquals(new Object[] {0.5, 0.0, -0.0, -2.5}, Sorter.sort(new Object[] {-0.0, 0.5, -2.5, 0.0}, null, true));
+		assertArrayEquals(new Object[] {"a", "b", "c"}, Sorter.sort(new Object[] {"c", "a", "b"}, null, false));
+		assertArrayEquals(new Object[] {1, 1.5, 2L, 3}, Sorter.sort(new Object[] {3, 2L, 1.5, 1}, null, false));
+	}
+	
+	@Test
+	public void testKeys() {
+		final Object[] values = new Object[1000];
+		final Object[] keys = new Object[values.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = "v" + i;
+			keys[i] = random.nextBoolean() ? (Object) Long.valueOf(random.nextInt(50)) : (Object) Double.valueOf(random.nextInt(100) / 2.0);
+		}
+		for (final boolean descending : new boolean[] {false, true}) {
+			final Object[] expected = reference(values, keys, descending);
+			assertArrayEquals(expected, Sorter.sort(values, keys, descending));
+			for (final int amount : new int[] {0, 1, 10, 999, 1000, 2000})
+				assertArrayEquals(Arrays.copyOf(expected, Math.min(amount, values.length)), Sorter.top(values, keys, amount, descending));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testKeyCount() {
+		Sorter.sort(new Object[] {1L, 2L}, new Object[] {1L}, false);
+	}
+	
+	/**
+	 * A simple stable sort of the values by their numerical keys
+	 */
+	private static Object[] reference(final Object[] values, final Object[] keys, final boolean descending) {
+		final Integer[] indices = new Integer[values.length];
+		for (int i = 0; i < indices.length; i++)
+			indices[i] = i;
+		Arrays.sort(indices, new Comparator<Integer>() {
+			@SuppressWarnings("null")
+			@Override
+			public int compare(final @Nullable Integer i, final @Nullable Integer j) {
+				final int c = Double.compare(((Number) keys[i]).doubleValue(), ((Number) keys[j]).doubleValue());
+				return descending ? -c : c;
+			}
+		});
+		final Object[] r = new Object[values.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = values[indices[i]];
+		return r;
+	}
+	
+}
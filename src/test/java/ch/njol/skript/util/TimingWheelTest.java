@@ -0,0 +1,139 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.util;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.objenesis.ObjenesisHelper;
+
+import ch.njol.skript.Skript;
+
+public class TimingWheelTest {
+	
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+		assumeTrue(Bukkit.getServer() == null);
+		
+		final BukkitScheduler scheduler = createNiceMock(BukkitScheduler.class);
+		replay(scheduler);
+		final Server s = createNiceMock(Server.class);
+		s.getLogger();
+		expectLastCall().andReturn(Logger.getLogger(TimingWheelTest.class.getCanonicalName())).anyTimes();
+		s.getScheduler();
+		expectLastCall().andReturn(scheduler).anyTimes();
+		replay(s);
+		Bukkit.setServer(s);
+		
+		final Field instance = Skript.class.getDeclaredField("instance");
+		instance.setAccessible(true);
+		if (instance.get(null) == null)
+			instance.set(null, ObjenesisHelper.newInstance(Skript.class)); // bypass the class loader check
+	}
+	
+	@After
+	public void after() {
+		TimingWheel.cancelAll();
+	}
+	
+	private final static class Task implements Runnable {
+		private final List<String> log;
+		private final String name;
+		
+		Task(final List<String> log, final String name) {
+			this.log = log;
+			this.name = name;
+		}
+		
+		@Override
+		public void run() {
+			log.add(name);
+		}
+	}
+	
+	@Test
+	public void testOrder() {
+		final List<String> log = new ArrayList<String>();
+		TimingWheel.schedule(new Task(log, "b"), 2, null);
+		TimingWheel.schedule(new Task(log, "a"), 1, null);
+		TimingWheel.scheduleRepeating(new Task(log, "r"), 1, 2, null);
+		TimingWheel.schedule(new Task(log, "c"), 300, null);
+		for (int i = 0; i < 300; i++)
+			TimingWheel.runTick();
+		assertEquals("a", log.get(0));
+		assertEquals("r", log.get(1));
+		assertEquals("b", log.get(2));
+		assertEquals("r", log.get(3));
+		assertEquals("c", log.get(log.size() - 1));
+		assertEquals(1 + 1 + 150 + 1, log.size());
+	}
+	
+	@Test
+	public void testCancelScriptInSameTick() {
+		final List<String> log = new ArrayList<String>();
+		final File script = new File("test.sk"), other = new File("other.sk");
+		TimingWheel.schedule(new Runnable() {
+			@Override
+			public void run() {
+				TimingWheel.cancel(script);
+			}
+		}, 1, null);
+		TimingWheel.schedule(new Task(log, "once"), 1, script);
+		TimingWheel.scheduleRepeating(new Task(log, "repeating"), 1, 1, script);
+		TimingWheel.schedule(new Task(log, "other"), 1, other);
+		TimingWheel.runTick();
+		TimingWheel.runTick();
+		assertEquals(1, log.size());
+		assertEquals("other", log.get(0));
+		assertEquals(0, TimingWheel.getPending());
+	}
+	
+	@Test
+	public void testCancelScriptsInSameTick() {
+		final List<String> log = new ArrayList<String>();
+		TimingWheel.schedule(new Runnable() {
+			@Override
+			public void run() {
+				TimingWheel.cancelScripts();
+			}
+		}, 1, null);
+		TimingWheel.schedule(new Task(log, "script"), 1, new File("test.sk"));
+		TimingWheel.schedule(new Task(log, "no script"), 1, null);
+		TimingWheel.runTick();
+		assertEquals(1, log.size());
+		assertEquals("no script", log.get(0));
+	}
+	
+}
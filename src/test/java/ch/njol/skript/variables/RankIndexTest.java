@@ -0,0 +1,145 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+public class RankIndexTest {
+	
+	private final static Random random = new Random(42);
+	
+	@Test
+	public void testEqualValues() {
+		final RankIndex index = new RankIndex();
+		index.set("a", 5L);
+		index.set("b", 5.0);
+		index.set("c", 7);
+		index.set("d", 2.5);
+		assertEquals(2, index.getRank("a"));
+		assertEquals(2, index.getRank("b"));
+		assertEquals(1, index.getRank("c"));
+		assertEquals(4, index.getRank("d"));
+		assertEquals(-1, index.getRank("e"));
+		index.set("c", null);
+		assertEquals(1, index.getRank("a"));
+		assertEquals(-1, index.getRank("c"));
+		index.set("e", "text");
+		assertFalse(index.isComplete());
+		index.set("e", 1L);
+		assertTrue(index.isComplete());
+		assertEquals(4, index.size());
+	}
+	
+	@Test
+	public void testRandom() {
+		final RankIndex index = new RankIndex();
+		final Map<String, Object> reference = new HashMap<String, Object>();
+		for (int op = 0; op < 20000; op++) {
+			final String i = "" + random.nextInt(200);
+			final Object value;
+			switch (random.nextInt(5)) {
+				case 0:
+					value = null;
+					break;
+				case 1:
+					value = Double.valueOf(random.nextInt(40) / 2.0);
+					break;
+				case 2:
+					value = random.nextInt(50) == 0 ? "not a number" : Integer.valueOf(random.nextInt(20));
+					break;
+				default:
+					value = Long.valueOf(random.nextInt(20));
+			}
+			index.set(i, value);
+			if (value == null)
+				reference.remove(i);
+			else
+				reference.put(i, value);
+			if (op % 100 == 0)
+				check(index, reference);
+		}
+		check(index, reference);
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(index.isComplete());
+		assertEquals(0, index.getTop(10, true).length);
+	}
+	
+	private static void check(final RankIndex index, final Map<String, Object> reference) {
+		final List<Number> numbers = new ArrayList<Number>();
+		boolean complete = true;
+		for (final Object o : reference.values()) {
+			if (o instanceof Number)
+				numbers.add((Number) o);
+			else
+				complete = false;
+		}
+		assertEquals(numbers.size(), index.size());
+		assertEquals(complete, index.isComplete());
+		
+		for (final Entry<String, Object> e : reference.entrySet()) {
+			final String i = e.getKey();
+			assert i != null;
+			if (!(e.getValue() instanceof Number)) {
+				assertEquals(-1, index.getRank(i));
+				continue;
+			}
+			final double value = ((Number) e.getValue()).doubleValue();
+			int rank = 1;
+			for (final Number n : numbers) {
+				if (n.doubleValue() > value)
+					rank++;
+			}
+			assertEquals(rank, index.getRank(i));
+		}
+		
+		for (final boolean descending : new boolean[] {false, true}) {
+			Collections.sort(numbers, new Comparator<Number>() {
+				@SuppressWarnings("null")
+				@Override
+				public int compare(final @Nullable Number n1, final @Nullable Number n2) {
+					final int c = Double.compare(n1.doubleValue(), n2.doubleValue());
+					return descending ? -c : c;
+				}
+			});
+			for (final int amount : new int[] {0, 1, 10, numbers.size(), numbers.size() + 5}) {
+				final Object[] top = index.getTop(amount, descending);
+				assertEquals(Math.min(amount, numbers.size()), top.length);
+				for (int j = 0; j < top.length; j++)
+					assertEquals(numbers.get(j).doubleValue(), ((Number) top[j]).doubleValue(), 0);
+			}
+		}
+	}
+	
+}
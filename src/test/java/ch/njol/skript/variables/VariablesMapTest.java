@@ -0,0 +1,70 @@
+/*
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2011-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class VariablesMapTest {
+	
+	@Test
+	public void testFreeIndex() {
+		final VariablesMap.ListNode list = new VariablesMap.ListNode();
+		assertEquals(1, list.getFreeIndex(1));
+		list.put("1", "a");
+		list.put("2", "b");
+		list.put("3", "c");
+		assertEquals(4, list.getFreeIndex(1));
+		assertEquals(5, list.getFreeIndex(5));
+		list.remove("2");
+		assertEquals(2, list.getFreeIndex(1));
+		list.put("2", "b");
+		list.put("x", "d");
+		assertEquals(4, list.getFreeIndex(1));
+		list.clear();
+		assertEquals(1, list.getFreeIndex(1));
+	}
+	
+	@Test
+	public void testLeadingZeroes() {
+		final VariablesMap.ListNode list = new VariablesMap.ListNode();
+		list.put("1", "a");
+		list.put("2", "b");
+		list.put("3", "c");
+		assertEquals(4, list.getFreeIndex(1));
+		assertNotNull(list.remove("01"));
+		assertFalse(list.containsKey("1"));
+		assertEquals(1, list.getFreeIndex(1));
+		list.put("001", "a");
+		assertTrue(list.containsKey("1"));
+		assertEquals(4, list.getFreeIndex(1));
+		assertNotNull(list.remove("0002"));
+		assertEquals(2, list.getFreeIndex(1));
+		list.put("02", "b");
+		list.put("00000000000004", "d");
+		assertEquals(5, list.getFreeIndex(1));
+		list.put("0", "zero");
+		assertEquals(5, list.getFreeIndex(1));
+	}
+	
+}
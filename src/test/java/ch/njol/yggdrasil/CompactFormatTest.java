@@ -0,0 +1,131 @@
+/*
+ *   This file is part of Yggdrasil, a data format to store object graphs, and the Java implementation thereof.
+ *
+ *  Yggdrasil is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Yggdrasil is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * 
+ * Copyright 2013-2016 Peter Güttinger and contributors
+ * 
+ */
+
+package ch.njol.yggdrasil;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+public class CompactFormatTest {
+	
+	@YggdrasilID("TestPoint")
+	private final static class Point implements YggdrasilSerializable {
+		
+		double x, y;
+		int id;
+		@Nullable
+		String name;
+		@Nullable
+		Point next;
+		
+		@SuppressWarnings("unused")
+		private Point() {}
+		
+		Point(final double x, final double y, final int id, final @Nullable String name) {
+			this.x = x;
+			this.y = y;
+			this.id = id;
+			this.name = name;
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (!(obj instanceof Point))
+				return false;
+			final Point p = (Point) obj;
+			return x == p.x && y == p.y && id == p.id && (name == null ? p.name == null : name.equals(p.name)) && (next == null ? p.next == null : next.equals(p.next));
+		}
+		
+		@Override
+		public int hashCode() {
+			return id;
+		}
+		
+	}
+	
+	private static Yggdrasil yggdrasil(final short version) {
+		final Yggdrasil y = new Yggdrasil(version);
+		y.registerSingleClass(Point.class);
+		y.registerSingleClass(Tag.class, "Tag");
+		return y;
+	}
+	
+	private static byte[] save(final Yggdrasil y, final Object o) throws IOException {
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		final YggdrasilOutputStream yout = y.newOutputStream(bout);
+		yout.writeObject(o);
+		yout.flush();
+		yout.close();
+		return bout.toByteArray();
+	}
+	
+	@Nullable
+	private static Object load(final Yggdrasil y, final byte[] data) throws IOException {
+		final YggdrasilInputStream yin = y.newInputStream(new ByteArrayInputStream(data));
+		final Object o = yin.readObject();
+		yin.close();
+		return o;
+	}
+	
+	@Test
+	public void testRoundTrip() throws IOException {
+		final Yggdrasil y = yggdrasil(Yggdrasil.COMPACT_VERSION);
+		final Object[] values = {
+				null, 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, (short) -300, (byte) 7, 'x', 1.5f, -2.25, true, "", "Yggdrasil",
+				new int[] {1, -2, 300000}, new String[] {"a", null, "a"}, Tag.T_ARRAY, String.class, new Point(1, 2, -5, "p")
+		};
+		for (final Object o : values) {
+			final Object r = load(y, save(y, o));
+			if (o != null && o.getClass().isArray())
+				assertTrue("" + o, Objects.deepEquals(o, r));
+			else
+				assertEquals(o, r);
+		}
+	}
+	
+	@Test
+	public void testSchemaReuse() throws IOException {
+		final Point[] ps = new Point[100];
+		for (int i = 0; i < ps.length; i++) {
+			ps[i] = new Point(i, -i, i, i % 2 == 0 ? null : "p" + i);
+			if (i > 0)
+				ps[i - 1].next = ps[i];
+		}
+		final byte[] compact = save(yggdrasil(Yggdrasil.COMPACT_VERSION), ps);
+		final byte[] def = save(yggdrasil(Yggdrasil.LATEST_VERSION), ps);
+		assertTrue(compact.length + " >= " + def.length, compact.length < def.length);
+		
+		// both formats can be read by either Yggdrasil version
+		for (final Yggdrasil y : new Yggdrasil[] {yggdrasil(Yggdrasil.COMPACT_VERSION), yggdrasil(Yggdrasil.LATEST_VERSION)}) {
+			assertTrue(Arrays.equals(ps, (Object[]) load(y, compact)));
+			assertTrue(Arrays.equals(ps, (Object[]) load(y, def)));
+		}
+	}
+	
+}